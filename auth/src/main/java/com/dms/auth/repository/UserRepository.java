@@ -5,10 +5,16 @@ import com.dms.auth.model.User;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // lower() on both sides matches idx_users_email_lower
     @EntityGraph(attributePaths = "departments")
-    Optional<User> findByEmail(String email);
-    Boolean existsByEmail(String email);
+    @Query("SELECT u FROM User u WHERE lower(u.email) = lower(:email)")
+    Optional<User> findByEmail(@Param("email") String email);
+
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE lower(u.email) = lower(:email)")
+    Boolean existsByEmail(@Param("email") String email);
 }
\ No newline at end of file
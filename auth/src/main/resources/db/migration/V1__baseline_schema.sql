@@ -0,0 +1,19 @@
+-- Schema previously maintained by ddl-auto=update. IF NOT EXISTS lets this run on
+-- databases created that way (baseline-on-migrate) as well as on empty ones.
+CREATE TABLE IF NOT EXISTS departments (
+    id   bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name varchar(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id            bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email         varchar(255) NOT NULL UNIQUE,
+    password_hash varchar(255) NOT NULL,
+    role          varchar(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS user_departments (
+    user_id       bigint NOT NULL REFERENCES users (id),
+    department_id bigint NOT NULL REFERENCES departments (id),
+    PRIMARY KEY (user_id, department_id)
+);
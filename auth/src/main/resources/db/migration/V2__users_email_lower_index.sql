@@ -0,0 +1,2 @@
+-- Case-insensitive login and registration checks: WHERE lower(email) = lower(?)
+CREATE INDEX IF NOT EXISTS idx_users_email_lower ON users (lower(email));
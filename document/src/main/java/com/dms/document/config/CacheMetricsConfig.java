@@ -0,0 +1,44 @@
+package com.dms.document.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.cache.CacheManager;
+
+/**
+ * Publishes size and eviction metrics for the second-level cache regions.
+ * Hit, miss and put counts per region come from Hibernate statistics
+ * (hibernate.second.level.cache.* metrics).
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class CacheMetricsConfig {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bindSecondLevelCacheMetrics() {
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getCache()
+                .getRegionFactory();
+
+        if (regionFactory instanceof JCacheRegionFactory jCacheRegionFactory) {
+            CacheManager cacheManager = jCacheRegionFactory.getCacheManager();
+            for (String cacheName : cacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(meterRegistry, cacheManager.getCache(cacheName));
+            }
+            log.info("Registered metrics for second-level cache regions: {}", cacheManager.getCacheNames());
+        }
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
@@ -28,6 +29,42 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${app.kafka.producer.batch-size:65536}")
+    private int producerBatchSize;
+
+    @Value("${app.kafka.producer.linger-ms:10}")
+    private int producerLingerMs;
+
+    @Value("${app.kafka.producer.compression-type:lz4}")
+    private String producerCompressionType;
+
+    @Value("${app.kafka.producer.enable-idempotence:true}")
+    private boolean producerEnableIdempotence;
+
+    @Value("${app.kafka.producer.acks:all}")
+    private String producerAcks;
+
+    @Value("${app.kafka.producer.max-in-flight-requests:5}")
+    private int producerMaxInFlightRequests;
+
+    @Value("${app.kafka.producer.delivery-timeout-ms:120000}")
+    private int producerDeliveryTimeoutMs;
+
+    @Value("${app.kafka.translation-consumer.max-poll-records:500}")
+    private int translationMaxPollRecords;
+
+    @Value("${app.kafka.translation-consumer.fetch-min-bytes:1}")
+    private int translationFetchMinBytes;
+
+    @Value("${app.kafka.translation-consumer.fetch-max-wait-ms:500}")
+    private int translationFetchMaxWaitMs;
+
+    @Value("${app.kafka.translation-consumer.concurrency:1}")
+    private int translationConcurrency;
+
+    @Value("${app.kafka.translation-consumer.coalesce-window-ms:1000}")
+    private long translationCoalesceWindowMs;
+
     // Producer configuration for DocumentCreatedMessage
     @Bean
     public ProducerFactory<String, DocumentCreatedMessage> documentCreatedProducerFactory() {
@@ -35,6 +72,15 @@ public class KafkaConfig {
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        // Throughput profile: batch records per partition, compress batches and keep
+        // ordering safe under retries with idempotence and bounded in-flight requests
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, producerBatchSize);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, producerLingerMs);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, producerCompressionType);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, producerEnableIdempotence);
+        configProps.put(ProducerConfig.ACKS_CONFIG, producerAcks);
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, producerMaxInFlightRequests);
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, producerDeliveryTimeoutMs);
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
@@ -52,6 +98,10 @@ public class KafkaConfig {
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.dms.document.kafka");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, translationMaxPollRecords);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, translationFetchMinBytes);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, translationFetchMaxWaitMs);
         
         return new DefaultKafkaConsumerFactory<>(
                 props, 
@@ -65,6 +115,12 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, TranslationCompletedMessage> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(translationCompletedConsumerFactory());
+        // Each poll is delivered as one list and offsets are committed once the whole batch is processed
+        factory.setBatchListener(true);
+        factory.setConcurrency(translationConcurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        // Pausing between polls lets results accumulate so bursts per document coalesce into one update
+        factory.getContainerProperties().setIdleBetweenPolls(translationCoalesceWindowMs);
         return factory;
     }
 }
\ No newline at end of file
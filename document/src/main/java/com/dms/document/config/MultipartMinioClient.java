@@ -0,0 +1,54 @@
+package com.dms.document.config;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import io.minio.MinioAsyncClient;
+import io.minio.ObjectWriteResponse;
+import io.minio.messages.Part;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Exposes the S3 multipart upload calls, which MinioClient only uses internally and one part
+ * at a time, so parts of a large object can be uploaded concurrently
+ */
+public class MultipartMinioClient extends MinioAsyncClient {
+
+    public MultipartMinioClient(MinioAsyncClient client) {
+        super(client);
+    }
+
+    /**
+     * Start a multipart upload
+     * @return The upload ID
+     */
+    public String startMultipartUpload(String bucket, String object, String contentType) throws Exception {
+        Multimap<String, String> headers = HashMultimap.create();
+        headers.put("Content-Type", contentType);
+        return createMultipartUploadAsync(bucket, null, object, headers, null)
+                .get()
+                .result()
+                .uploadId();
+    }
+
+    /**
+     * Upload one part of a multipart upload
+     * @return The part number and ETag to pass to {@link #finishMultipartUpload}
+     */
+    public Part uploadPart(String bucket, String object, String uploadId, int partNumber,
+                           byte[] data, int length) throws Exception {
+        return new Part(partNumber,
+                uploadPartAsync(bucket, null, object, data, length, uploadId, partNumber, null, null)
+                        .get()
+                        .etag());
+    }
+
+    public ObjectWriteResponse finishMultipartUpload(String bucket, String object, String uploadId,
+                                                     Part[] parts) throws Exception {
+        return completeMultipartUploadAsync(bucket, null, object, uploadId, parts, null, null).get();
+    }
+
+    public CompletableFuture<?> abortMultipartUpload(String bucket, String object, String uploadId) throws Exception {
+        return abortMultipartUploadAsync(bucket, null, object, uploadId, null, null);
+    }
+}
@@ -0,0 +1,86 @@
+package com.dms.document.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Routes read-only transactions to the replica pool and everything else to the primary.
+ * After a user's write transaction commits, that user's reads stay on the primary for a
+ * short window so they see their own changes despite replication lag. Must be wrapped in a
+ * LazyConnectionDataSourceProxy so the read-only flag is known when a connection is taken.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final long readYourWritesWindowMs;
+
+    // username -> commit time of the user's last write transaction on this instance;
+    // entries older than the window are swept so the map only holds recent writers
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepAt = new AtomicLong();
+
+    public ReadReplicaRoutingDataSource(long readYourWritesWindowMs) {
+        this.readYourWritesWindowMs = readYourWritesWindowMs;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String username = currentUsername();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (username != null && readYourWritesWindowMs > 0) {
+                recordWriteOnCommit(username);
+            }
+            return PRIMARY;
+        }
+
+        if (username != null && readYourWritesWindowMs > 0) {
+            Long lastWrite = lastWriteByUser.get(username);
+            if (lastWrite != null) {
+                if (System.currentTimeMillis() - lastWrite < readYourWritesWindowMs) {
+                    return PRIMARY;
+                }
+                lastWriteByUser.remove(username, lastWrite);
+            }
+        }
+        return REPLICA;
+    }
+
+    // The window starts when the changes become visible, not when the connection is taken
+    private void recordWriteOnCommit(String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordWrite(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordWrite(username);
+            }
+        });
+    }
+
+    private void recordWrite(String username) {
+        long now = System.currentTimeMillis();
+        lastWriteByUser.put(username, now);
+
+        long sweepAt = nextSweepAt.get();
+        if (now >= sweepAt && nextSweepAt.compareAndSet(sweepAt, now + readYourWritesWindowMs)) {
+            lastWriteByUser.values().removeIf(lastWrite -> now - lastWrite >= readYourWritesWindowMs);
+        }
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,43 @@
+package com.dms.document.controller;
+
+import com.dms.document.dto.DirectUploadRequest;
+import com.dms.document.dto.DirectUploadResponse;
+import com.dms.document.dto.DocumentResponse;
+import com.dms.document.service.DirectUploadService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Direct uploads: request a presigned URL, PUT the file straight to the object store with
+ * the returned Content-Type, then confirm to attach it to the document
+ */
+@RestController
+@RequestMapping("/api/files/direct-uploads")
+@RequiredArgsConstructor
+public class DirectUploadController {
+
+    private final DirectUploadService directUploadService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<DirectUploadResponse> createUpload(@Valid @RequestBody DirectUploadRequest request) {
+        return new ResponseEntity<>(directUploadService.createUpload(request), HttpStatus.CREATED);
+    }
+
+    @PostMapping("/{uploadId}/confirm")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<DocumentResponse> confirmUpload(@PathVariable String uploadId) {
+        return ResponseEntity.ok(directUploadService.confirmUpload(uploadId));
+    }
+
+    @DeleteMapping("/{uploadId}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<Void> cancelUpload(@PathVariable String uploadId) {
+        directUploadService.cancelUpload(uploadId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,18 +1,31 @@
 package com.dms.document.controller;
 
+import com.dms.document.dto.BulkDocumentRequest;
+import com.dms.document.dto.DepartmentStatisticsResponse;
+import com.dms.document.dto.DocumentPageResponse;
 import com.dms.document.dto.DocumentRequest;
 import com.dms.document.dto.DocumentResponse;
+import com.dms.document.dto.DocumentVersionPageResponse;
+import com.dms.document.dto.DocumentVersionResponse;
 import com.dms.document.dto.FileUploadRequest;
+import com.dms.document.dto.SearchIndexStats;
+import com.dms.document.service.DocumentExportService;
+import com.dms.document.service.DocumentRevisionService;
 import com.dms.document.service.DocumentService;
+import com.dms.document.service.DocumentStatisticsService;
+import com.dms.document.search.TitleSearchIndex;
 import com.dms.document.service.FileService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,6 +35,10 @@ import java.util.List;
 public class DocumentController {
     private final DocumentService documentService;
     private final FileService fileService;
+    private final DocumentExportService documentExportService;
+    private final TitleSearchIndex titleSearchIndex;
+    private final DocumentStatisticsService statisticsService;
+    private final DocumentRevisionService revisionService;
 
     @PostMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
@@ -29,6 +46,12 @@ public class DocumentController {
         return new ResponseEntity<>(documentService.createDocument(request), HttpStatus.CREATED);
     }
 
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<List<DocumentResponse>> createDocuments(@Valid @RequestBody BulkDocumentRequest request) {
+        return new ResponseEntity<>(documentService.createDocuments(request), HttpStatus.CREATED);
+    }
+
     @PostMapping(value = "/with-file", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<DocumentResponse> createDocumentWithFile(
@@ -52,20 +75,70 @@ public class DocumentController {
 
     @GetMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<DocumentResponse>> getAllDocuments() {
-        return ResponseEntity.ok(documentService.getAllDocumentsForUser());
+    public ResponseEntity<List<DocumentResponse>> getAllDocuments(WebRequest webRequest) {
+        String eTag = documentService.getDocumentListETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(documentService.getAllDocumentsForUser());
+    }
+
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<DocumentPageResponse> getDocumentPage(
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        return ResponseEntity.ok(documentService.getDocumentPageForUser(size, cursor));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportDocuments() {
+        StreamingResponseBody body = documentExportService::exportDocumentsForUser;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/statistics")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<List<DepartmentStatisticsResponse>> getStatistics() {
+        return ResponseEntity.ok(statisticsService.getStatisticsForUser());
     }
 
     @GetMapping("/search")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<DocumentResponse>> searchDocuments(@RequestParam String keyword) {
-        return ResponseEntity.ok(documentService.searchDocumentsByTitle(keyword));
+    public ResponseEntity<List<DocumentResponse>> searchDocuments(
+            @RequestParam String keyword,
+            @RequestParam(value = "backend", defaultValue = "database") String backend,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        // Returns at most limit results (default 100, max 1000), best matches first
+        if ("index".equalsIgnoreCase(backend)) {
+            return ResponseEntity.ok(documentService.searchDocumentsInIndex(keyword, limit));
+        }
+        return ResponseEntity.ok(documentService.searchDocumentsByTitle(keyword, limit));
+    }
+
+    @GetMapping("/search/index-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SearchIndexStats> getSearchIndexStats() {
+        return ResponseEntity.ok(titleSearchIndex.getStats());
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<DocumentResponse> getDocumentById(@PathVariable Long id) {
-        return ResponseEntity.ok(documentService.getDocumentById(id));
+    public ResponseEntity<DocumentResponse> getDocumentById(@PathVariable Long id, WebRequest webRequest) {
+        String eTag = documentService.getDocumentETag(id);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(documentService.getDocumentById(id));
     }
 
     @PutMapping("/{id}")
@@ -101,11 +174,27 @@ public class DocumentController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<Void> deleteDocument(@PathVariable Long id) {
+        // Marks a tombstone; files and rows are removed later by the purge worker
         documentService.deleteDocument(id);
-        fileService.deleteFile(id);
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/{id}/versions")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<DocumentVersionPageResponse> getDocumentVersions(
+            @PathVariable Long id,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        return ResponseEntity.ok(revisionService.getVersions(id, size, cursor));
+    }
+
+    @GetMapping("/{id}/versions/{version}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<DocumentVersionResponse> getDocumentVersion(
+            @PathVariable Long id, @PathVariable int version) {
+        return ResponseEntity.ok(revisionService.getVersion(id, version));
+    }
+
     @GetMapping("/{id}/download")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<String> getDocumentFileDownloadUrl(@PathVariable Long id) {
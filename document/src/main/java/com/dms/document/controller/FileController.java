@@ -2,7 +2,10 @@ package com.dms.document.controller;
 
 import com.dms.document.dto.DocumentResponse;
 import com.dms.document.dto.FileUploadRequest;
+import com.dms.document.dto.StorageStats;
+import com.dms.document.service.FileBlobService;
 import com.dms.document.service.FileService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -10,12 +13,15 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping("/api/files")
 @RequiredArgsConstructor
 public class FileController {
 
     private final FileService fileService;
+    private final FileBlobService blobService;
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
@@ -32,6 +38,31 @@ public class FileController {
         return ResponseEntity.ok(fileService.uploadFile(file, request));
     }
 
+    /**
+     * Upload a file as the raw request body, e.g. with Content-Type: application/pdf. Unlike the
+     * multipart endpoint the body is streamed straight to storage without a temporary copy.
+     */
+    @PutMapping("/{documentId}/content")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<DocumentResponse> uploadFileStream(
+            @PathVariable Long documentId,
+            @RequestParam("fileName") String fileName,
+            @RequestParam(value = "fileDescription", required = false) String fileDescription,
+            HttpServletRequest servletRequest) throws IOException {
+        
+        FileUploadRequest request = FileUploadRequest.builder()
+                .documentId(documentId)
+                .fileDescription(fileDescription)
+                .build();
+        
+        return ResponseEntity.ok(fileService.uploadFileStream(
+                servletRequest.getInputStream(),
+                servletRequest.getContentLengthLong(),
+                fileName,
+                servletRequest.getContentType(),
+                request));
+    }
+
     @DeleteMapping("/{documentId}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<Void> deleteFile(@PathVariable Long documentId) {
@@ -45,4 +76,10 @@ public class FileController {
         String downloadUrl = fileService.generateDownloadUrl(documentId);
         return ResponseEntity.ok(downloadUrl);
     }
+
+    @GetMapping("/storage-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StorageStats> getStorageStats() {
+        return ResponseEntity.ok(blobService.getStats());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.dms.document.controller;
+
+import com.dms.document.dto.DocumentResponse;
+import com.dms.document.dto.UploadSessionRequest;
+import com.dms.document.dto.UploadSessionResponse;
+import com.dms.document.service.UploadSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * Resumable uploads: open a session, PUT numbered chunks (any order, in parallel, retried
+ * as needed), check which chunks arrived with GET, then complete the session
+ */
+@RestController
+@RequestMapping("/api/files/upload-sessions")
+@RequiredArgsConstructor
+public class UploadSessionController {
+
+    private final UploadSessionService uploadSessionService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<UploadSessionResponse> createSession(@Valid @RequestBody UploadSessionRequest request) {
+        return new ResponseEntity<>(uploadSessionService.createSession(request), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{sessionId}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<UploadSessionResponse> getSession(@PathVariable String sessionId) {
+        return ResponseEntity.ok(uploadSessionService.getSession(sessionId));
+    }
+
+    @PutMapping("/{sessionId}/chunks/{chunkNumber}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<UploadSessionResponse> uploadChunk(
+            @PathVariable String sessionId,
+            @PathVariable int chunkNumber,
+            HttpServletRequest servletRequest) throws IOException {
+        return ResponseEntity.ok(uploadSessionService.uploadChunk(
+                sessionId, chunkNumber, servletRequest.getInputStream()));
+    }
+
+    @PostMapping("/{sessionId}/complete")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<DocumentResponse> completeSession(@PathVariable String sessionId) {
+        return ResponseEntity.ok(uploadSessionService.completeSession(sessionId));
+    }
+
+    @DeleteMapping("/{sessionId}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<Void> cancelSession(@PathVariable String sessionId) {
+        uploadSessionService.cancelSession(sessionId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.dms.document.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDocumentRequest {
+    @NotEmpty(message = "At least one document is required")
+    @Size(max = 5000, message = "At most 5000 documents can be created per request")
+    private List<@Valid DocumentRequest> documents;
+}
@@ -0,0 +1,30 @@
+package com.dms.document.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentStatisticsResponse {
+    private Long departmentId;
+    private long documentCount;
+    private long totalFileSizeBytes;
+    private List<CategoryStatistics> categories;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryStatistics {
+        private Long categoryId;
+        private String categoryName;
+        private long documentCount;
+        private long totalFileSizeBytes;
+    }
+}
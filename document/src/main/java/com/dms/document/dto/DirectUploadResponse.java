@@ -0,0 +1,21 @@
+package com.dms.document.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectUploadResponse {
+    private String uploadId;
+    private Long documentId;
+    private String uploadUrl;  // PUT the file content here
+    private String contentType;  // Content-Type header the PUT must carry
+    private LocalDateTime uploadUrlExpiresAt;
+    private LocalDateTime expiresAt;  // Confirm before this time or the upload is discarded
+}
@@ -0,0 +1,18 @@
+package com.dms.document.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentPageResponse {
+    private List<DocumentResponse> content;
+    private int size;
+    private String nextCursor;  // Opaque token for the next page, null when there are no more results
+}
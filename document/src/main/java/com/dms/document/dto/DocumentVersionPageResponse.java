@@ -0,0 +1,21 @@
+package com.dms.document.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentVersionPageResponse {
+    private Long documentId;
+    private int currentVersion;
+    private int oldestAvailableVersion;  // Older versions have been pruned by the retention cap
+    private List<DocumentVersionSummary> content;  // Changes, newest first
+    private int size;
+    private String nextCursor;  // Opaque token for the next page, null when there are no more results
+}
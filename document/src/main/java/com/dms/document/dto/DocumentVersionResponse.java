@@ -0,0 +1,28 @@
+package com.dms.document.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentVersionResponse {
+    private Long documentId;
+    private int version;
+    private boolean current;
+    private String title;
+    private Long departmentId;
+    private Long categoryId;
+    private String fileName;
+    private String fileDescription;
+    private String fileType;
+    private Long fileSizeBytes;
+    private String fileUrl;  // Presigned URL to the file as it was at this version
+    private String changedBy;  // Null when the change that produced this version has been pruned
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,20 @@
+package com.dms.document.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentVersionSummary {
+    private int version;
+    private Set<String> changedFields;
+    private String changedBy;
+    private LocalDateTime changedAt;
+}
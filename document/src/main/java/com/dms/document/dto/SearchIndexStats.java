@@ -0,0 +1,19 @@
+package com.dms.document.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchIndexStats {
+    private boolean ready;
+    private int documents;
+    private int departments;
+    private int terms;
+    private long postings;
+    private long estimatedBytes;
+}
@@ -0,0 +1,19 @@
+package com.dms.document.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorageStats {
+    private long blobs;  // Distinct stored objects
+    private long references;  // Document files and prior versions pointing at them
+    private long storedBytes;  // Bytes actually stored
+    private long referencedBytes;  // Bytes that would be stored without deduplication
+    private long bytesSaved;
+    private double dedupRatio;  // referencedBytes / storedBytes
+}
@@ -0,0 +1,29 @@
+package com.dms.document.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionRequest {
+    @NotNull(message = "Document ID is required")
+    private Long documentId;
+
+    @NotBlank(message = "File name is required")
+    private String fileName;
+
+    private String contentType;
+
+    @NotNull(message = "File size is required")
+    @PositiveOrZero(message = "File size must not be negative")
+    private Long fileSizeBytes;
+
+    private String fileDescription;
+}
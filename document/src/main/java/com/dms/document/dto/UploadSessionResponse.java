@@ -0,0 +1,23 @@
+package com.dms.document.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionResponse {
+    private String sessionId;
+    private Long documentId;
+    private long fileSizeBytes;
+    private int chunkSizeBytes;  // Every chunk except the last must be exactly this size
+    private int totalChunks;  // Chunks are numbered 1..totalChunks
+    private int receivedChunks;
+    private String receivedBitmap;  // One character per chunk in order: '1' received, '0' missing
+    private LocalDateTime expiresAt;
+}
@@ -1,13 +1,17 @@
 package com.dms.document.kafka;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class DocumentKafkaProducer {
 
@@ -15,14 +19,48 @@ public class DocumentKafkaProducer {
     private String documentCreatedTopic;
     
     private final KafkaTemplate<String, DocumentCreatedMessage> kafkaTemplate;
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Timer sendTimer;
+
+    public DocumentKafkaProducer(KafkaTemplate<String, DocumentCreatedMessage> kafkaTemplate,
+                                 MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.sentCounter = Counter.builder("document.kafka.send")
+                .tag("result", "success")
+                .description("Document created messages acknowledged by the broker")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("document.kafka.send")
+                .tag("result", "failure")
+                .description("Document created messages that failed to send")
+                .register(meterRegistry);
+        this.sendTimer = Timer.builder("document.kafka.send.latency")
+                .description("Time from send until broker acknowledgement")
+                .register(meterRegistry);
+    }
     
-    public void sendDocumentCreatedMessage(Long documentId, String title) {
+    /**
+     * Send a document created message asynchronously
+     * @return A future completed when the broker acknowledges the record
+     */
+    public CompletableFuture<SendResult<String, DocumentCreatedMessage>> sendDocumentCreatedMessage(Long documentId, String title) {
         DocumentCreatedMessage message = DocumentCreatedMessage.builder()
                 .id(documentId)
                 .title(title)
                 .build();
         
-        log.info("Sending document created message for document ID: {}", documentId);
-        kafkaTemplate.send(documentCreatedTopic, String.valueOf(documentId), message);
+        log.debug("Sending document created message for document ID: {}", documentId);
+        Timer.Sample sample = Timer.start();
+        return kafkaTemplate.send(documentCreatedTopic, String.valueOf(documentId), message)
+                .whenComplete((result, ex) -> {
+                    sample.stop(sendTimer);
+                    if (ex == null) {
+                        sentCounter.increment();
+                    } else {
+                        failedCounter.increment();
+                        log.error("Failed to send document created message for document ID: {}", documentId, ex);
+                    }
+                });
     }
-}
\ No newline at end of file
+}
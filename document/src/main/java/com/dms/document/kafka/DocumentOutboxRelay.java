@@ -0,0 +1,151 @@
+package com.dms.document.kafka;
+
+import com.dms.document.model.DocumentOutboxEvent;
+import com.dms.document.repository.DocumentOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the document outbox to the document-created topic in batches.
+ * A batch is claimed in one short transaction, sent with no transaction or connection held,
+ * and the acknowledged events are deleted in a second short transaction. Failed sends are
+ * released for the next run, so delivery is at-least-once and independent of the request path.
+ */
+@Component
+@Slf4j
+public class DocumentOutboxRelay {
+
+    private final DocumentOutboxRepository outboxRepository;
+    private final DocumentKafkaProducer documentKafkaProducer;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final AtomicLong pendingEvents = new AtomicLong();
+
+    @Value("${app.outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    // The producer completes every send within its delivery timeout, so waiting longer never
+    // abandons a record that Kafka still delivers and sends it again on the next run
+    @Value("#{${app.kafka.producer.delivery-timeout-ms:120000} + ${app.outbox.relay.send-timeout-margin-ms:5000}}")
+    private long sendTimeoutMs;
+
+    // Extra claim time on top of the send wait, covering the producer blocking on metadata before sending
+    @Value("${app.outbox.relay.claim-margin-ms:60000}")
+    private long claimMarginMs;
+
+    public DocumentOutboxRelay(DocumentOutboxRepository outboxRepository,
+                               DocumentKafkaProducer documentKafkaProducer,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.documentKafkaProducer = documentKafkaProducer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.publishedCounter = Counter.builder("document.outbox.published")
+                .description("Outbox events published to Kafka")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("document.outbox.failed")
+                .description("Outbox events whose send failed and will be retried")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("document.outbox.relay.batch")
+                .description("Time to publish one outbox batch")
+                .register(meterRegistry);
+        Gauge.builder("document.outbox.lag", lagMillis, AtomicLong::get)
+                .description("Age of the oldest unpublished outbox event")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("document.outbox.pending", pendingEvents, AtomicLong::get)
+                .description("Outbox events waiting to be published")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval-ms:500}")
+    public void relay() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime claimedUntil = now.plus(Duration.ofMillis(sendTimeoutMs + claimMarginMs));
+        List<DocumentOutboxEvent> batch = new ArrayList<>(transactionTemplate.execute(
+                status -> outboxRepository.claimNextBatch(batchSize, now, claimedUntil)));
+        if (batch.isEmpty()) {
+            lagMillis.set(0);
+            pendingEvents.set(0);
+            return;
+        }
+        // UPDATE ... RETURNING does not keep the order of the claiming subquery
+        batch.sort(Comparator.comparing(DocumentOutboxEvent::getId));
+
+        lagMillis.set(Duration.between(batch.get(0).getCreatedAt(), LocalDateTime.now()).toMillis());
+        batchTimer.record(() -> publish(batch));
+        pendingEvents.set(outboxRepository.count());
+    }
+
+    private void publish(List<DocumentOutboxEvent> batch) {
+        // Only the newest title per document needs translating; older events in the batch are superseded
+        Map<Long, DocumentOutboxEvent> latestByDocument = new LinkedHashMap<>();
+        List<Long> processedIds = new ArrayList<>(batch.size());
+        for (DocumentOutboxEvent event : batch) {
+            DocumentOutboxEvent superseded = latestByDocument.put(event.getDocumentId(), event);
+            if (superseded != null) {
+                processedIds.add(superseded.getId());
+            }
+        }
+
+        List<DocumentOutboxEvent> toSend = new ArrayList<>(latestByDocument.values());
+        List<CompletableFuture<?>> futures = new ArrayList<>(toSend.size());
+        for (DocumentOutboxEvent event : toSend) {
+            futures.add(documentKafkaProducer.sendDocumentCreatedMessage(event.getDocumentId(), event.getTitle()));
+        }
+
+        List<Long> failedIds = new ArrayList<>();
+        int published = 0;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        for (int i = 0; i < toSend.size(); i++) {
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                futures.get(i).get(remaining, TimeUnit.NANOSECONDS);
+                processedIds.add(toSend.get(i).getId());
+                published++;
+            } catch (InterruptedException e) {
+                // Unconfirmed events keep their claim and are retried once it expires
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                failedIds.add(toSend.get(i).getId());
+                log.warn("Failed to publish outbox event {} for document ID: {}: {}",
+                        toSend.get(i).getId(), toSend.get(i).getDocumentId(), e.getMessage());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxRepository.deleteAllByIdInBatch(processedIds);
+            if (!failedIds.isEmpty()) {
+                outboxRepository.releaseClaims(failedIds);
+            }
+        });
+        publishedCounter.increment(published);
+        failedCounter.increment(toSend.size() - published);
+        log.debug("Published {} of {} outbox events ({} superseded)",
+                published, batch.size(), batch.size() - toSend.size());
+    }
+}
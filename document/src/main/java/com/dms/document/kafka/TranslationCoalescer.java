@@ -0,0 +1,31 @@
+package com.dms.document.kafka;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collapses a window of translation results to the newest result per document.
+ * Results for the same document arrive in order within a partition, so the last
+ * one seen wins; results for a title that has since changed are dropped later
+ * by the conditional update.
+ */
+final class TranslationCoalescer {
+
+    private TranslationCoalescer() {
+    }
+
+    static List<TranslationCompletedMessage> coalesce(List<TranslationCompletedMessage> messages) {
+        Map<Long, TranslationCompletedMessage> latestById = new LinkedHashMap<>();
+        for (TranslationCompletedMessage message : messages) {
+            if (message == null || message.getId() == null) {
+                continue;
+            }
+            // Re-insert so the document keeps the position of its newest result
+            latestById.remove(message.getId());
+            latestById.put(message.getId(), message);
+        }
+        return new ArrayList<>(latestById.values());
+    }
+}
@@ -2,11 +2,22 @@ package com.dms.document.kafka;
 
 import com.dms.document.model.Document;
 import com.dms.document.repository.DocumentRepository;
+import com.dms.document.repository.TranslatedTitleUpdate;
+import com.dms.document.search.TitleSearchIndex;
+import com.dms.document.service.ResourceVersionService;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -14,24 +25,64 @@ import org.springframework.transaction.annotation.Transactional;
 public class TranslationKafkaConsumer {
 
     private final DocumentRepository documentRepository;
+    private final TitleSearchIndex titleSearchIndex;
+    private final ResourceVersionService resourceVersionService;
+    private final EntityManagerFactory entityManagerFactory;
 
     @KafkaListener(
         topics = "${spring.kafka.topics.translation-completed}",
         containerFactory = "translationKafkaListenerContainerFactory"
     )
     @Transactional
-    public void handleTranslationCompleted(TranslationCompletedMessage message) {
-        log.info("Received translation for document ID: {}", message.getId());
-        
-        documentRepository.findById(message.getId())
-                .ifPresentOrElse(
-                    document -> {
-                        document.setTranslatedTitle(message.getTranslatedTitle());
-                        documentRepository.save(document);
-                        log.info("Updated document with ID: {} with translated title: {}", 
-                                message.getId(), message.getTranslatedTitle());
-                    },
-                    () -> log.warn("Document with ID: {} not found", message.getId())
-                );
+    public void handleTranslationsCompleted(List<TranslationCompletedMessage> messages) {
+        log.info("Received {} translations", messages.size());
+
+        // Within one poll window only the newest translation per document matters
+        List<TranslationCompletedMessage> updates = TranslationCoalescer.coalesce(messages);
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        List<TranslatedTitleUpdate> titleUpdates = updates.stream()
+                .map(message -> new TranslatedTitleUpdate(
+                        message.getId(), message.getOriginalTitle(), message.getTranslatedTitle()))
+                .toList();
+        int[] rowCounts = documentRepository.updateTranslatedTitles(titleUpdates, LocalDateTime.now());
+
+        int updated = 0;
+        List<Long> updatedIds = new ArrayList<>(updates.size());
+        for (int i = 0; i < rowCounts.length; i++) {
+            TranslatedTitleUpdate update = titleUpdates.get(i);
+            // The driver may report SUCCESS_NO_INFO (-2) instead of a row count
+            if (rowCounts[i] == 0) {
+                log.info("Dropped translation for document ID: {} (document deleted or title changed)",
+                        update.documentId());
+            } else {
+                updated++;
+                updatedIds.add(update.documentId());
+                titleSearchIndex.updateTranslatedTitle(update.documentId(), update.translatedTitle());
+            }
+        }
+        // Invalidate list ETags of the affected departments
+        resourceVersionService.bumpDepartmentsOfDocuments(updatedIds);
+
+        // The batched JDBC update bypasses Hibernate, so drop the cached rows once the new values are committed
+        evictFromSecondLevelCacheAfterCommit(updatedIds);
+
+        log.info("Updated translated titles for {} documents ({} received, {} after coalescing)",
+                updated, messages.size(), updates.size());
+    }
+
+    private void evictFromSecondLevelCacheAfterCommit(List<Long> documentIds) {
+        if (documentIds.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Cache cache = entityManagerFactory.getCache();
+                documentIds.forEach(id -> cache.evict(Document.class, id));
+            }
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package com.dms.document.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An upload the client sends straight to the object store through a presigned PUT URL.
+ * The file is attached to the document only when the client confirms the upload. Confirmed
+ * and cancelled uploads stay closed until the PUT URL expires, then their staged object is removed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "direct_uploads")
+public class DirectUpload {
+    @Id
+    private String id;
+
+    @Column(name = "document_id", nullable = false)
+    private Long documentId;
+
+    @Column(name = "created_by", nullable = false)
+    private String createdBy;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    // The content type the client was told to upload with
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "file_description")
+    private String fileDescription;
+
+    @Column(name = "object_key", nullable = false)
+    private String objectKey;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Until then the client can still write to the staging key
+    @Column(name = "url_expires_at", nullable = false)
+    private LocalDateTime urlExpiresAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Set when the upload is confirmed or cancelled; it can't be confirmed again
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
+}
@@ -5,16 +5,30 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "documents")
+@Table(name = "documents", indexes = {
+    @Index(name = "idx_documents_department_created", columnList = "department_id, created_at, id"),
+    @Index(name = "idx_documents_category", columnList = "category_id"),
+    @Index(name = "idx_documents_created_by", columnList = "created_by")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "document")
+// Deleted documents stay as tombstones until the purge worker removes them; every
+// entity load and JPQL query skips them. Native queries must filter deleted_at themselves.
+@SQLRestriction("deleted_at IS NULL")
 public class Document {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence so inserts can be JDBC-batched (IDENTITY disables batching)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "documents_seq")
+    @SequenceGenerator(name = "documents_seq", sequenceName = "documents_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -49,4 +63,7 @@ public class Document {
     
     @Column(name = "updated_at")
     private java.time.LocalDateTime updatedAt;
+    
+    @Column(name = "deleted_at")
+    private java.time.LocalDateTime deletedAt;
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.dms.document.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending document-created event, written in the same transaction as the document
+ * and published to Kafka by the outbox relay
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "document_outbox")
+public class DocumentOutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "document_outbox_seq")
+    @SequenceGenerator(name = "document_outbox_seq", sequenceName = "document_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "document_id", nullable = false)
+    private Long documentId;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Set while a relay run is publishing the event; expired claims are picked up again
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+}
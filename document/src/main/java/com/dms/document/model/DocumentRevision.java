@@ -0,0 +1,51 @@
+package com.dms.document.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * One change to a document. Only the fields that changed are stored, with the values
+ * they had before the change, so earlier versions are rebuilt by walking back from the
+ * current row. A replaced file stays in storage under its old key until the revision
+ * that references it is pruned.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "document_revisions", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_document_revisions_document_revision", columnNames = {"document_id", "revision"})
+})
+public class DocumentRevision {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "document_revisions_seq")
+    @SequenceGenerator(name = "document_revisions_seq", sequenceName = "document_revisions_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "document_id", nullable = false)
+    private Long documentId;
+
+    // The version this change produced; version 1 is the document as created
+    @Column(nullable = false)
+    private int revision;
+
+    @Column(name = "changed_by", nullable = false)
+    private String changedBy;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    // Field name -> value before this change (null when the field was unset)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "previous_values", nullable = false)
+    private Map<String, String> previousValues;
+}
@@ -0,0 +1,44 @@
+package com.dms.document.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Document count and total file size per department and category,
+ * maintained incrementally in the same transaction as document writes
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "document_statistics")
+@IdClass(DocumentStatistics.Key.class)
+public class DocumentStatistics {
+    @Id
+    @Column(name = "department_id")
+    private Long departmentId;
+
+    @Id
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(name = "document_count", nullable = false)
+    private long documentCount;
+
+    @Column(name = "total_file_size_bytes", nullable = false)
+    private long totalFileSizeBytes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long departmentId;
+        private Long categoryId;
+    }
+}
@@ -0,0 +1,39 @@
+package com.dms.document.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stored object shared by every document and prior version with the same content.
+ * The reference count is the number of document file keys and revision deltas pointing at it;
+ * the object is queued for deletion when it drops to zero.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "file_blobs")
+public class FileBlob {
+    @Id
+    @Column(name = "object_key")
+    private String objectKey;
+
+    // Hex SHA-256 of the content; null for objects assembled from separately uploaded parts
+    @Column(unique = true, length = 64)
+    private String sha256;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "ref_count", nullable = false)
+    private long refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,28 @@
+package com.dms.document.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An object that is no longer referenced, written in the same transaction that dropped the
+ * last reference and removed from storage by the purge worker
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "file_deletions")
+public class PendingFileDeletion {
+    @Id
+    @Column(name = "object_key")
+    private String objectKey;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
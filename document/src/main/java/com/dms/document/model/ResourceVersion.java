@@ -0,0 +1,26 @@
+package com.dms.document.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Monotonic change counter for a cacheable resource (a department's documents,
+ * the category list), used to build ETags without loading the resource itself
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "resource_versions")
+public class ResourceVersion {
+    @Id
+    @Column(name = "resource_key")
+    private String resourceKey;
+
+    @Column(nullable = false)
+    private long version;
+}
@@ -0,0 +1,61 @@
+package com.dms.document.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A resumable upload in progress. Each chunk is uploaded directly as one part of an
+ * object-store multipart upload; completing the session completes that upload.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "upload_sessions")
+public class UploadSession {
+    @Id
+    private String id;
+
+    @Column(name = "document_id", nullable = false)
+    private Long documentId;
+
+    @Column(name = "created_by", nullable = false)
+    private String createdBy;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "file_description")
+    private String fileDescription;
+
+    @Column(name = "file_size_bytes", nullable = false)
+    private long fileSizeBytes;
+
+    @Column(name = "chunk_size_bytes", nullable = false)
+    private int chunkSizeBytes;
+
+    @Column(name = "total_chunks", nullable = false)
+    private int totalChunks;
+
+    // Object key and multipart upload ID in the object store
+    @Column(name = "object_key", nullable = false)
+    private String objectKey;
+
+    @Column(name = "multipart_upload_id", nullable = false)
+    private String multipartUploadId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
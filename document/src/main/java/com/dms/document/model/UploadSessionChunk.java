@@ -0,0 +1,43 @@
+package com.dms.document.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * A chunk received by an upload session, stored as the multipart part with the same number
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "upload_session_chunks")
+@IdClass(UploadSessionChunk.Key.class)
+public class UploadSessionChunk {
+    @Id
+    @Column(name = "session_id")
+    private String sessionId;
+
+    @Id
+    @Column(name = "chunk_number")
+    private int chunkNumber;
+
+    @Column(nullable = false)
+    private String etag;
+
+    @Column(name = "size_bytes", nullable = false)
+    private int sizeBytes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String sessionId;
+        private int chunkNumber;
+    }
+}
@@ -0,0 +1,23 @@
+package com.dms.document.repository;
+
+import com.dms.document.model.DirectUpload;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DirectUploadRepository extends JpaRepository<DirectUpload, String> {
+    List<DirectUpload> findByExpiresAtBeforeOrderByExpiresAt(LocalDateTime time, Pageable pageable);
+
+    // Keeps the row, and so the staged object, until the PUT URL expires. Returns 0 when the
+    // upload is already closed, so of several concurrent callers only one claims it
+    @Modifying
+    @Query("UPDATE DirectUpload u SET u.closedAt = :closedAt, u.expiresAt = u.urlExpiresAt " +
+           "WHERE u.id = :id AND u.closedAt IS NULL")
+    int close(String id, LocalDateTime closedAt);
+}
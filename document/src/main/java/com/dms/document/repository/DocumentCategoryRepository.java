@@ -1,9 +1,13 @@
 package com.dms.document.repository;
 
 import com.dms.document.model.DocumentCategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +15,9 @@ public interface DocumentCategoryRepository extends JpaRepository<DocumentCatego
     Optional<DocumentCategory> findByName(String name);
     
     boolean existsByName(String name);
+
+    // Served from the query cache; invalidated whenever document_categories is written through JPA
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<DocumentCategory> findAll();
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.dms.document.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection with the columns needed for document listings,
+ * including the category in the same row
+ */
+public interface DocumentListView {
+    Long getId();
+    String getTitle();
+    String getTranslatedTitle();
+    Long getDepartmentId();
+    Long getCategoryId();
+    String getCategoryName();
+    String getFileName();
+    String getFileDescription();
+    String getFileType();
+    Long getFileSizeBytes();
+    String getCreatedBy();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,32 @@
+package com.dms.document.repository;
+
+import com.dms.document.model.DocumentOutboxEvent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DocumentOutboxRepository extends JpaRepository<DocumentOutboxEvent, Long> {
+    // Claims unclaimed or expired events until claimedUntil. SKIP LOCKED lets several relay instances
+    // claim concurrently, and the claim keeps them from double-sending after the transaction commits.
+    @Query(value = "UPDATE document_outbox SET claimed_until = :claimedUntil WHERE id IN (" +
+                   "SELECT id FROM document_outbox WHERE claimed_until IS NULL OR claimed_until < :now " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING *",
+           nativeQuery = true)
+    List<DocumentOutboxEvent> claimNextBatch(int limit, LocalDateTime now, LocalDateTime claimedUntil);
+
+    // Makes events whose send failed available to the next relay run
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "document_outbox"))
+    @Query(value = "UPDATE document_outbox SET claimed_until = NULL WHERE id IN (:ids)", nativeQuery = true)
+    int releaseClaims(Collection<Long> ids);
+}
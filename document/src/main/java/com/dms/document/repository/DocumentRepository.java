@@ -1,15 +1,33 @@
 package com.dms.document.repository;
 
 import com.dms.document.model.Document;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
-public interface DocumentRepository extends JpaRepository<Document, Long> {
+public interface DocumentRepository extends JpaRepository<Document, Long>, DocumentRepositoryCustom {
+    String LIST_VIEW_SELECT = "SELECT d.id AS id, d.title AS title, d.translatedTitle AS translatedTitle, " +
+            "d.departmentId AS departmentId, c.id AS categoryId, c.name AS categoryName, " +
+            "d.fileName AS fileName, d.fileDescription AS fileDescription, d.fileType AS fileType, " +
+            "d.fileSizeBytes AS fileSizeBytes, d.createdBy AS createdBy, " +
+            "d.createdAt AS createdAt, d.updatedAt AS updatedAt " +
+            "FROM Document d JOIN d.category c ";
+
     List<Document> findByDepartmentId(Long departmentId);
     
     List<Document> findByDepartmentIdIn(Set<Long> departmentIds);
@@ -17,8 +35,87 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
     List<Document> findByCategoryId(Long categoryId);
     
     List<Document> findByCreatedBy(String username);
+
+    // Row lock for every change to a document, so concurrent edits and deletes of one document
+    // are applied one after another and versioned changes get distinct revision numbers
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Document d WHERE d.id = :id")
+    Optional<Document> findByIdForUpdate(Long id);
     
-    @Query("SELECT d FROM Document d WHERE d.departmentId IN :departmentIds AND " +
-           "LOWER(d.title) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Document> searchByTitleInDepartments(String keyword, Set<Long> departmentIds);
-}
\ No newline at end of file
+    // Ranked full-text search on title and translated title, backed by the GIN index on search_vector
+    @Query(value = "SELECT d.id FROM documents d " +
+                   "WHERE d.department_id IN (:departmentIds) AND d.deleted_at IS NULL " +
+                   "AND d.search_vector @@ websearch_to_tsquery('simple', :keyword) " +
+                   "ORDER BY ts_rank(d.search_vector, websearch_to_tsquery('simple', :keyword)) DESC, d.id DESC " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<Long> fullTextSearchIdsInDepartments(String keyword, Set<Long> departmentIds, int limit);
+
+    // Projections for read-only listings; no entities are loaded into the persistence context
+    @Query("SELECT d.id AS id, d.departmentId AS departmentId, d.createdAt AS createdAt, " +
+           "d.updatedAt AS updatedAt FROM Document d WHERE d.id = :id")
+    Optional<DocumentVersionView> findVersionById(Long id);
+
+    @Query(LIST_VIEW_SELECT + "WHERE d.departmentId IN :departmentIds")
+    List<DocumentListView> findListViewsInDepartments(Set<Long> departmentIds);
+
+    @Query(LIST_VIEW_SELECT + "WHERE d.id IN :ids")
+    List<DocumentListView> findListViewsByIdIn(Collection<Long> ids);
+
+    // Keyset pagination ordered by (createdAt, id), newest first
+    @Query(LIST_VIEW_SELECT + "WHERE d.departmentId IN :departmentIds " +
+           "ORDER BY d.createdAt DESC, d.id DESC")
+    List<DocumentListView> findFirstPageInDepartments(Set<Long> departmentIds, Pageable pageable);
+
+    @Query(LIST_VIEW_SELECT + "WHERE d.departmentId IN :departmentIds AND " +
+           "(d.createdAt < :createdAt OR (d.createdAt = :createdAt AND d.id < :id)) " +
+           "ORDER BY d.createdAt DESC, d.id DESC")
+    List<DocumentListView> findPageAfterInDepartments(Set<Long> departmentIds, LocalDateTime createdAt, Long id,
+                                                      Pageable pageable);
+
+    // Cursor-based read for exports; must be consumed inside a read-only transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(LIST_VIEW_SELECT + "WHERE d.departmentId IN :departmentIds ORDER BY d.id")
+    Stream<DocumentListView> streamByDepartmentIdIn(Set<Long> departmentIds);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d.id AS id, d.departmentId AS departmentId, d.title AS title, " +
+           "d.translatedTitle AS translatedTitle FROM Document d")
+    Stream<DocumentTitleView> streamAllTitles();
+
+    // Tombstones for the purge worker; native because the entity's restriction hides them from JPQL
+    @Query(value = "SELECT d.id FROM documents d WHERE d.deleted_at IS NOT NULL ORDER BY d.deleted_at, d.id " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<Long> findTombstonedIds(int limit);
+
+    @Query(value = "SELECT COUNT(*) FROM documents WHERE deleted_at IS NOT NULL", nativeQuery = true)
+    long countTombstoned();
+
+    // Tombstones still reference their category until purged
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM documents WHERE category_id = :categoryId)", nativeQuery = true)
+    boolean existsIncludingDeletedByCategoryId(Long categoryId);
+
+    // Current files plus prior versions kept in the revision history, one row per reference
+    @Query(value = "SELECT d.file_key FROM documents d " +
+                   "WHERE d.id IN (:ids) AND d.file_key IS NOT NULL " +
+                   "UNION ALL " +
+                   "SELECT r.previous_values ->> 'fileKey' " +
+                   "FROM document_revisions r " +
+                   "WHERE r.document_id IN (:ids) AND r.previous_values ->> 'fileKey' IS NOT NULL",
+           nativeQuery = true)
+    List<String> findFileKeysOfDocuments(Collection<Long> ids);
+
+    // Tombstones were evicted from the second-level cache when deleted, so only the
+    // cascaded revision rows are declared as affected
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "document_revisions"))
+    @Query(value = "DELETE FROM documents WHERE id IN (:ids) AND deleted_at IS NOT NULL", nativeQuery = true)
+    int deleteTombstonedByIdIn(Collection<Long> ids);
+}
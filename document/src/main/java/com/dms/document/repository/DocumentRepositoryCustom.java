@@ -0,0 +1,15 @@
+package com.dms.document.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DocumentRepositoryCustom {
+    /**
+     * Set translated titles directly by id, without loading entities, as one JDBC batch
+     * @param updates The translations to apply
+     * @param updatedAt The modification time to record
+     * @return The affected row count for each update, in the same order (0 when the document
+     *         was deleted or its title changed)
+     */
+    int[] updateTranslatedTitles(List<TranslatedTitleUpdate> updates, LocalDateTime updatedAt);
+}
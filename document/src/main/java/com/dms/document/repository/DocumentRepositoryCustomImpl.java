@@ -0,0 +1,42 @@
+package com.dms.document.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class DocumentRepositoryCustomImpl implements DocumentRepositoryCustom {
+
+    // Only applies the translation if it was made for the document's current title, and never to tombstones
+    private static final String UPDATE_TRANSLATED_TITLE_SQL =
+            "UPDATE documents SET translated_title = ?, updated_at = ? " +
+            "WHERE id = ? AND title = ? AND deleted_at IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.kafka.translation-consumer.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    @Override
+    public int[] updateTranslatedTitles(List<TranslatedTitleUpdate> updates, LocalDateTime updatedAt) {
+        int[][] results = jdbcTemplate.batchUpdate(UPDATE_TRANSLATED_TITLE_SQL, updates, jdbcBatchSize,
+                (ps, update) -> {
+                    ps.setString(1, update.translatedTitle());
+                    ps.setObject(2, updatedAt);
+                    ps.setLong(3, update.documentId());
+                    ps.setString(4, update.originalTitle());
+                });
+
+        int[] rowCounts = new int[updates.size()];
+        int index = 0;
+        for (int[] batch : results) {
+            for (int rowCount : batch) {
+                rowCounts[index++] = rowCount;
+            }
+        }
+        return rowCounts;
+    }
+}
@@ -0,0 +1,30 @@
+package com.dms.document.repository;
+
+import com.dms.document.model.DocumentRevision;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface DocumentRevisionRepository extends JpaRepository<DocumentRevision, Long> {
+
+    @Query("SELECT MAX(r.revision) FROM DocumentRevision r WHERE r.documentId = :documentId")
+    Optional<Integer> findLatestRevision(@Param("documentId") Long documentId);
+
+    @Query("SELECT MIN(r.revision) FROM DocumentRevision r WHERE r.documentId = :documentId")
+    Optional<Integer> findOldestRevision(@Param("documentId") Long documentId);
+
+    List<DocumentRevision> findByDocumentIdOrderByRevisionDesc(Long documentId, Pageable pageable);
+
+    List<DocumentRevision> findByDocumentIdAndRevisionLessThanOrderByRevisionDesc(
+            Long documentId, int revision, Pageable pageable);
+
+    // Revisions needed to rebuild a version: the version's own row and every later change
+    List<DocumentRevision> findByDocumentIdAndRevisionGreaterThanEqualOrderByRevisionDesc(
+            Long documentId, int revision);
+
+    List<DocumentRevision> findByDocumentIdAndRevisionLessThanEqual(Long documentId, int revision);
+}
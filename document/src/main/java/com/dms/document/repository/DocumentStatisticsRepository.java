@@ -0,0 +1,30 @@
+package com.dms.document.repository;
+
+import com.dms.document.model.DocumentStatistics;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Set;
+
+@Repository
+public interface DocumentStatisticsRepository extends JpaRepository<DocumentStatistics, DocumentStatistics.Key> {
+    List<DocumentStatistics> findByDepartmentIdIn(Set<Long> departmentIds);
+
+    // Atomic increment; creates the counter row on first use. The query space hint keeps
+    // Hibernate from invalidating unrelated second-level cache regions.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "document_statistics"))
+    @Query(value = "INSERT INTO document_statistics (department_id, category_id, document_count, total_file_size_bytes) " +
+                   "VALUES (:departmentId, :categoryId, :countDelta, :sizeDelta) " +
+                   "ON CONFLICT (department_id, category_id) DO UPDATE SET " +
+                   "document_count = document_statistics.document_count + EXCLUDED.document_count, " +
+                   "total_file_size_bytes = document_statistics.total_file_size_bytes + EXCLUDED.total_file_size_bytes",
+           nativeQuery = true)
+    int applyDelta(Long departmentId, Long categoryId, long countDelta, long sizeDelta);
+}
@@ -0,0 +1,11 @@
+package com.dms.document.repository;
+
+/**
+ * Projection with the fields needed to index document titles
+ */
+public interface DocumentTitleView {
+    Long getId();
+    Long getDepartmentId();
+    String getTitle();
+    String getTranslatedTitle();
+}
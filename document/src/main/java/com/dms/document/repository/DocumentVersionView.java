@@ -0,0 +1,13 @@
+package com.dms.document.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Minimal projection used to answer conditional requests for a single document
+ */
+public interface DocumentVersionView {
+    Long getId();
+    Long getDepartmentId();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+}
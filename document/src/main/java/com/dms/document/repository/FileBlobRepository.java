@@ -0,0 +1,44 @@
+package com.dms.document.repository;
+
+import com.dms.document.model.FileBlob;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface FileBlobRepository extends JpaRepository<FileBlob, String> {
+    // Adds a reference to the blob with this digest, registering the given object if there is none.
+    // Returns the key of the object to use, which differs from objectKey when the content was already stored.
+    // A null digest never conflicts, so such objects are always registered as their own blob.
+    @Query(value = "INSERT INTO file_blobs (object_key, sha256, size_bytes, ref_count, created_at) " +
+                   "VALUES (:objectKey, :sha256, :sizeBytes, 1, :createdAt) " +
+                   "ON CONFLICT (sha256) DO UPDATE SET ref_count = file_blobs.ref_count + 1 " +
+                   "RETURNING object_key",
+           nativeQuery = true)
+    String acquire(String sha256, String objectKey, long sizeBytes, LocalDateTime createdAt);
+
+    // Empty when the key is not a registered blob (objects stored before deduplication)
+    @Query(value = "UPDATE file_blobs SET ref_count = ref_count - 1 WHERE object_key = :objectKey " +
+                   "RETURNING ref_count",
+           nativeQuery = true)
+    Optional<Long> decrement(String objectKey);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "file_blobs"))
+    @Query(value = "DELETE FROM file_blobs WHERE object_key = :objectKey AND ref_count <= 0", nativeQuery = true)
+    int deleteIfUnreferenced(String objectKey);
+
+    @Query(value = "SELECT COUNT(*) AS blobCount, COALESCE(SUM(ref_count), 0) AS referenceCount, " +
+                   "COALESCE(SUM(size_bytes), 0) AS storedBytes, " +
+                   "COALESCE(SUM(size_bytes * ref_count), 0) AS referencedBytes " +
+                   "FROM file_blobs",
+           nativeQuery = true)
+    FileBlobStatsView getStats();
+}
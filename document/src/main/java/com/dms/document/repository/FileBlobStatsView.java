@@ -0,0 +1,8 @@
+package com.dms.document.repository;
+
+public interface FileBlobStatsView {
+    long getBlobCount();
+    long getReferenceCount();
+    long getStoredBytes();
+    long getReferencedBytes();
+}
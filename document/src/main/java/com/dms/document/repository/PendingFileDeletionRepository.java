@@ -0,0 +1,26 @@
+package com.dms.document.repository;
+
+import com.dms.document.model.PendingFileDeletion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PendingFileDeletionRepository extends JpaRepository<PendingFileDeletion, String> {
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "file_deletions"))
+    @Query(value = "INSERT INTO file_deletions (object_key, created_at) VALUES (:objectKey, :createdAt) " +
+                   "ON CONFLICT (object_key) DO NOTHING",
+           nativeQuery = true)
+    int enqueue(String objectKey, LocalDateTime createdAt);
+
+    @Query(value = "SELECT object_key FROM file_deletions ORDER BY created_at LIMIT :limit", nativeQuery = true)
+    List<String> findNextBatch(int limit);
+}
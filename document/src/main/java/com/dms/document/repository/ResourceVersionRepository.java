@@ -0,0 +1,35 @@
+package com.dms.document.repository;
+
+import com.dms.document.model.ResourceVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ResourceVersionRepository extends JpaRepository<ResourceVersion, String> {
+    List<ResourceVersion> findByResourceKeyIn(Collection<String> resourceKeys);
+
+    // Query space hints keep Hibernate from invalidating unrelated second-level cache regions
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resource_versions"))
+    @Query(value = "INSERT INTO resource_versions (resource_key, version) VALUES (:resourceKey, 1) " +
+                   "ON CONFLICT (resource_key) DO UPDATE SET version = resource_versions.version + 1",
+           nativeQuery = true)
+    int increment(String resourceKey);
+
+    // Bumps the department version of every given document in one statement
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resource_versions"))
+    @Query(value = "INSERT INTO resource_versions (resource_key, version) " +
+                   "SELECT DISTINCT 'department:' || d.department_id, 1 FROM documents d WHERE d.id IN (:documentIds) " +
+                   "ON CONFLICT (resource_key) DO UPDATE SET version = resource_versions.version + 1",
+           nativeQuery = true)
+    int incrementDepartmentsOfDocuments(Collection<Long> documentIds);
+}
@@ -0,0 +1,7 @@
+package com.dms.document.repository;
+
+/**
+ * A translated title to apply to a document, valid only while the document still has the original title
+ */
+public record TranslatedTitleUpdate(Long documentId, String originalTitle, String translatedTitle) {
+}
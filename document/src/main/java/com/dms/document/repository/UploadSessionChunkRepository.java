@@ -0,0 +1,27 @@
+package com.dms.document.repository;
+
+import com.dms.document.model.UploadSessionChunk;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UploadSessionChunkRepository extends JpaRepository<UploadSessionChunk, UploadSessionChunk.Key> {
+    List<UploadSessionChunk> findBySessionIdOrderByChunkNumber(String sessionId);
+
+    // A resent chunk replaces the earlier part, so the latest ETag wins; safe under concurrent uploads
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "upload_session_chunks"))
+    @Query(value = "INSERT INTO upload_session_chunks (session_id, chunk_number, etag, size_bytes) " +
+                   "VALUES (:sessionId, :chunkNumber, :etag, :sizeBytes) " +
+                   "ON CONFLICT (session_id, chunk_number) DO UPDATE SET " +
+                   "etag = EXCLUDED.etag, size_bytes = EXCLUDED.size_bytes",
+           nativeQuery = true)
+    int upsert(String sessionId, int chunkNumber, String etag, int sizeBytes);
+}
@@ -0,0 +1,21 @@
+package com.dms.document.repository;
+
+import com.dms.document.model.UploadSession;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+    List<UploadSession> findByExpiresAtBeforeOrderByExpiresAt(LocalDateTime time, Pageable pageable);
+
+    // Returns 0 when the session is already gone, so of several concurrent callers only one claims it
+    @Modifying
+    @Query("DELETE FROM UploadSession s WHERE s.id = :id")
+    int deleteAndCount(String id);
+}
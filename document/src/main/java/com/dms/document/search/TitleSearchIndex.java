@@ -0,0 +1,280 @@
+package com.dms.document.search;
+
+import com.dms.document.dto.SearchIndexStats;
+import com.dms.document.repository.DocumentRepository;
+import com.dms.document.repository.DocumentTitleView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over document titles and translated titles.
+ * Posting lists are partitioned by department, so a search only touches
+ * the departments the user has access to. The last query token is matched
+ * as a prefix to support typeahead.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TitleSearchIndex {
+
+    // Rough per-entry sizes on a 64-bit JVM with compressed oops, used for the footprint estimate
+    private static final int MAP_ENTRY_BYTES = 48;
+    private static final int SET_ENTRY_BYTES = 48;
+    private static final int LONG_BYTES = 16;
+    private static final int STRING_OVERHEAD_BYTES = 40;
+
+    private final DocumentRepository documentRepository;
+
+    @Value("${app.search.in-memory-index.enabled:true}")
+    private boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // departmentId -> term -> document IDs
+    private final Map<Long, NavigableMap<String, Set<Long>>> postingsByDepartment = new HashMap<>();
+
+    // documentId -> indexed entry, used to remove stale postings on update and delete
+    private final Map<Long, IndexedDocument> documents = new HashMap<>();
+
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildIndex() {
+        if (!enabled) {
+            log.info("In-memory title search index is disabled");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try (Stream<DocumentTitleView> views = documentRepository.streamAllTitles()) {
+            postingsByDepartment.clear();
+            documents.clear();
+            views.forEach(view -> addUnlocked(view.getId(), view.getDepartmentId(),
+                    view.getTitle(), view.getTranslatedTitle()));
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Built title search index with {} documents in {} ms",
+                documents.size(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Add or replace a document in the index. When called inside a transaction
+     * the change is applied after commit, so rolled-back writes never become visible.
+     */
+    public void index(Long documentId, Long departmentId, String title, String translatedTitle) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeUnlocked(documentId);
+                addUnlocked(documentId, departmentId, title, translatedTitle);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Update only the translated title of an indexed document
+     */
+    public void updateTranslatedTitle(Long documentId, String translatedTitle) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                IndexedDocument existing = documents.get(documentId);
+                if (existing != null) {
+                    removeUnlocked(documentId);
+                    addUnlocked(documentId, existing.departmentId(), existing.title(), translatedTitle);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long documentId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeUnlocked(documentId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Find documents whose title or translated title contains every query token.
+     * @param query The search text; the last token is treated as a prefix
+     * @param departmentIds The departments the caller may see
+     * @param limit Maximum number of IDs to return
+     * @return Matching document IDs, newest first
+     */
+    public List<Long> search(String query, Set<Long> departmentIds, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        TreeSet<Long> results = new TreeSet<>(Comparator.reverseOrder());
+        lock.readLock().lock();
+        try {
+            for (Long departmentId : departmentIds) {
+                NavigableMap<String, Set<Long>> postings = postingsByDepartment.get(departmentId);
+                if (postings != null) {
+                    results.addAll(searchDepartment(postings, tokens));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return results.stream().limit(limit).toList();
+    }
+
+    public SearchIndexStats getStats() {
+        lock.readLock().lock();
+        try {
+            Set<String> distinctTerms = new HashSet<>();
+            long postings = 0;
+            long estimatedBytes = 0;
+            for (NavigableMap<String, Set<Long>> departmentPostings : postingsByDepartment.values()) {
+                for (Map.Entry<String, Set<Long>> entry : departmentPostings.entrySet()) {
+                    distinctTerms.add(entry.getKey());
+                    postings += entry.getValue().size();
+                    estimatedBytes += MAP_ENTRY_BYTES + STRING_OVERHEAD_BYTES + 2L * entry.getKey().length()
+                            + (long) entry.getValue().size() * (SET_ENTRY_BYTES + LONG_BYTES);
+                }
+            }
+            for (IndexedDocument document : documents.values()) {
+                estimatedBytes += MAP_ENTRY_BYTES + LONG_BYTES
+                        + STRING_OVERHEAD_BYTES + 2L * length(document.title())
+                        + STRING_OVERHEAD_BYTES + 2L * length(document.translatedTitle());
+            }
+
+            return SearchIndexStats.builder()
+                    .ready(ready)
+                    .documents(documents.size())
+                    .departments(postingsByDepartment.size())
+                    .terms(distinctTerms.size())
+                    .postings(postings)
+                    .estimatedBytes(estimatedBytes)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Long> searchDepartment(NavigableMap<String, Set<Long>> postings, List<String> tokens) {
+        Set<Long> matches = null;
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            Set<Long> tokenMatches;
+            if (i == tokens.size() - 1) {
+                tokenMatches = new HashSet<>();
+                for (Set<Long> ids : postings.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+                    tokenMatches.addAll(ids);
+                }
+            } else {
+                tokenMatches = postings.getOrDefault(token, Set.of());
+            }
+
+            if (matches == null) {
+                matches = new HashSet<>(tokenMatches);
+            } else {
+                matches.retainAll(tokenMatches);
+            }
+            if (matches.isEmpty()) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    private void addUnlocked(Long documentId, Long departmentId, String title, String translatedTitle) {
+        Set<String> terms = new HashSet<>(tokenize(title));
+        terms.addAll(tokenize(translatedTitle));
+
+        NavigableMap<String, Set<Long>> postings =
+                postingsByDepartment.computeIfAbsent(departmentId, id -> new TreeMap<>());
+        for (String term : terms) {
+            postings.computeIfAbsent(term, t -> new HashSet<>()).add(documentId);
+        }
+        documents.put(documentId, new IndexedDocument(departmentId, title, translatedTitle, terms));
+    }
+
+    private void removeUnlocked(Long documentId) {
+        IndexedDocument existing = documents.remove(documentId);
+        if (existing == null) {
+            return;
+        }
+
+        NavigableMap<String, Set<Long>> postings = postingsByDepartment.get(existing.departmentId());
+        if (postings == null) {
+            return;
+        }
+        for (String term : existing.terms()) {
+            Set<Long> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(documentId);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        if (postings.isEmpty()) {
+            postingsByDepartment.remove(existing.departmentId());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private record IndexedDocument(Long departmentId, String title, String translatedTitle, Set<String> terms) {
+    }
+}
@@ -19,6 +19,7 @@ import java.util.stream.Collectors;
 public class CategoryService {
     private final DocumentCategoryRepository categoryRepository;
     private final DocumentRepository documentRepository;
+    private final ResourceVersionService resourceVersionService;
 
     @Transactional
     public CategoryResponse createCategory(CategoryRequest request) {
@@ -32,9 +33,16 @@ public class CategoryService {
                 .build();
         
         DocumentCategory savedCategory = categoryRepository.save(category);
+        resourceVersionService.bumpCategories();
         return mapToCategoryResponse(savedCategory);
     }
 
+    @Transactional(readOnly = true)
+    public String getCategoriesETag() {
+        return resourceVersionService.getCategoriesETag();
+    }
+
+    @Transactional(readOnly = true)
     public List<CategoryResponse> getAllCategories() {
         return categoryRepository.findAll()
                 .stream()
@@ -42,6 +50,7 @@ public class CategoryService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public CategoryResponse getCategoryById(Long id) {
         DocumentCategory category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
@@ -66,6 +75,7 @@ public class CategoryService {
         category.setDescription(request.getDescription());
         
         DocumentCategory updatedCategory = categoryRepository.save(category);
+        resourceVersionService.bumpCategories();
         return mapToCategoryResponse(updatedCategory);
     }
 
@@ -78,8 +88,12 @@ public class CategoryService {
         if (!documentRepository.findByCategoryId(id).isEmpty()) {
             throw new IllegalStateException("Cannot delete category that is in use by documents");
         }
+        if (documentRepository.existsIncludingDeletedByCategoryId(id)) {
+            throw new IllegalStateException("Cannot delete category until its deleted documents are purged");
+        }
         
         categoryRepository.delete(category);
+        resourceVersionService.bumpCategories();
     }
     
     private CategoryResponse mapToCategoryResponse(DocumentCategory category) {
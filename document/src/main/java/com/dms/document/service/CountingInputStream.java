@@ -0,0 +1,67 @@
+package com.dms.document.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts the bytes read from a stream and fails once more than a maximum have been read
+ */
+class CountingInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+    private long count;
+    private boolean limitExceeded;
+
+    CountingInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            add(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = super.read(buffer, offset, length);
+        if (n > 0) {
+            add(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        add(skipped);
+        return skipped;
+    }
+
+    // mark/reset would make the count inaccurate
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    boolean isLimitExceeded() {
+        return limitExceeded;
+    }
+
+    private void add(long n) throws IOException {
+        count += n;
+        if (count > maxBytes) {
+            limitExceeded = true;
+            throw new IOException("Upload exceeds the maximum size of " + maxBytes + " bytes");
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.dms.document.service;
+
+import com.dms.document.dto.DirectUploadRequest;
+import com.dms.document.dto.DirectUploadResponse;
+import com.dms.document.dto.DocumentResponse;
+import com.dms.document.dto.FileUploadRequest;
+import com.dms.document.exception.ResourceNotFoundException;
+import com.dms.document.model.DirectUpload;
+import com.dms.document.model.Document;
+import com.dms.document.repository.DirectUploadRepository;
+import com.dms.document.repository.DocumentRepository;
+import com.dms.document.repository.PendingFileDeletionRepository;
+import com.dms.document.security.UserDetailsImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Uploads that bypass this service. The client PUTs the file to a presigned URL under a
+ * staging key, then confirms; the staged object is checked against the object store and
+ * copied server-side to its final key, so later writes through the still-valid URL cannot
+ * change the attached file. Staged objects are removed through the file deletion queue once
+ * the URL has expired, since until then a late PUT would recreate them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DirectUploadService {
+
+    private static final int EXPIRY_BATCH_SIZE = 100;
+
+    private final DirectUploadRepository uploadRepository;
+    private final DocumentRepository documentRepository;
+    private final PendingFileDeletionRepository deletionRepository;
+    private final FileStorageService fileStorageService;
+    private final FileService fileService;
+    private final TransactionTemplate transactionTemplate;
+
+    // Server-side copies are single requests, which S3 limits to 5 GB
+    @Value("${app.upload.direct.max-size-bytes:2147483648}")
+    private long maxSizeBytes;
+
+    @Value("${app.upload.direct.url-expiry-minutes:15}")
+    private int urlExpiryMinutes;
+
+    @Value("${app.upload.direct.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    public DirectUploadResponse createUpload(DirectUploadRequest request) {
+        UserDetailsImpl userDetails = currentUser();
+
+        transactionTemplate.executeWithoutResult(status -> findAccessibleDocument(request.getDocumentId()));
+
+        FileStorageService.PresignedUpload presigned = fileStorageService.generatePresignedUpload(
+                request.getDocumentId(), request.getFileName(), request.getContentType(), urlExpiryMinutes);
+
+        LocalDateTime now = LocalDateTime.now();
+        DirectUpload upload = DirectUpload.builder()
+                .id(UUID.randomUUID().toString())
+                .documentId(request.getDocumentId())
+                .createdBy(userDetails.getUsername())
+                .fileName(request.getFileName())
+                .contentType(presigned.contentType())
+                .fileDescription(request.getFileDescription())
+                .objectKey(presigned.key())
+                .createdAt(now)
+                .urlExpiresAt(now.plusMinutes(urlExpiryMinutes))
+                .expiresAt(now.plusMinutes(Math.max(ttlMinutes, urlExpiryMinutes)))
+                .build();
+        transactionTemplate.executeWithoutResult(status -> uploadRepository.save(upload));
+
+        log.info("Direct upload {} prepared for document ID: {}", upload.getId(), upload.getDocumentId());
+        return DirectUploadResponse.builder()
+                .uploadId(upload.getId())
+                .documentId(upload.getDocumentId())
+                .uploadUrl(presigned.url())
+                .contentType(upload.getContentType())
+                .uploadUrlExpiresAt(upload.getUrlExpiresAt())
+                .expiresAt(upload.getExpiresAt())
+                .build();
+    }
+
+    /**
+     * Verify the uploaded object and attach it to the document
+     * @param uploadId The direct upload
+     * @return The updated document
+     */
+    public DocumentResponse confirmUpload(String uploadId) {
+        DirectUpload upload = transactionTemplate.execute(status -> findOwnedUpload(uploadId));
+
+        // Not uploaded yet: keep the upload so the client can retry
+        FileStorageService.StoredObjectInfo object = fileStorageService.statFile(upload.getObjectKey())
+                .orElseThrow(() -> new ResourceNotFoundException("Uploaded file not found"));
+
+        // Closing first means a concurrent or repeated confirm can't attach the file twice;
+        // a rejected or failed upload has to be started again
+        close(upload);
+
+        if (object.sizeBytes() > maxSizeBytes) {
+            throw new MaxUploadSizeExceededException(maxSizeBytes);
+        }
+        if (!isSameMediaType(upload.getContentType(), object.contentType())) {
+            throw new IllegalArgumentException("File was uploaded as " + object.contentType()
+                    + " instead of " + upload.getContentType());
+        }
+
+        FileUploadRequest request = FileUploadRequest.builder()
+                .documentId(upload.getDocumentId())
+                .fileDescription(upload.getFileDescription())
+                .build();
+
+        // The content never passes through this service, so it is not hashed and not deduplicated
+        DocumentResponse response = fileService.storeAndAttach(request, upload.getFileName(),
+                upload.getContentType(), () -> new FileStorageService.StoredFile(
+                        fileStorageService.copyFile(upload.getObjectKey(), object.etag(), upload.getFileName()),
+                        object.sizeBytes(), null));
+
+        log.info("Direct upload {} confirmed for document ID: {} ({} bytes)", uploadId, upload.getDocumentId(),
+                object.sizeBytes());
+        return response;
+    }
+
+    public void cancelUpload(String uploadId) {
+        DirectUpload upload = transactionTemplate.execute(status -> findOwnedUpload(uploadId));
+        close(upload);
+    }
+
+    /**
+     * Discard unconfirmed uploads and closed uploads whose URL has expired, and queue their
+     * staged objects for deletion
+     */
+    @Scheduled(fixedDelayString = "${app.upload.direct.cleanup-interval-ms:600000}")
+    public void expireAbandonedUploads() {
+        List<DirectUpload> expired;
+        do {
+            expired = transactionTemplate.execute(status -> {
+                List<DirectUpload> batch = uploadRepository.findByExpiresAtBeforeOrderByExpiresAt(
+                        LocalDateTime.now(), PageRequest.of(0, EXPIRY_BATCH_SIZE));
+                LocalDateTime now = LocalDateTime.now();
+                batch.forEach(upload -> deletionRepository.enqueue(upload.getObjectKey(), now));
+                uploadRepository.deleteAllInBatch(batch);
+                return batch;
+            });
+            if (!expired.isEmpty()) {
+                log.info("Expired {} unconfirmed direct uploads", expired.size());
+            }
+        } while (expired.size() == EXPIRY_BATCH_SIZE);
+    }
+
+    private void close(DirectUpload upload) {
+        Integer closed = transactionTemplate.execute(status ->
+                uploadRepository.close(upload.getId(), LocalDateTime.now()));
+        if (closed == null || closed == 0) {
+            throw new ResourceNotFoundException("Upload not found");
+        }
+    }
+
+    private DirectUpload findOwnedUpload(String uploadId) {
+        UserDetailsImpl userDetails = currentUser();
+
+        DirectUpload upload = uploadRepository.findById(uploadId)
+                .filter(found -> found.getClosedAt() == null && found.getExpiresAt().isAfter(LocalDateTime.now()))
+                .orElseThrow(() -> new ResourceNotFoundException("Upload not found"));
+
+        if (!upload.getCreatedBy().equals(userDetails.getUsername())) {
+            throw new AccessDeniedException("You don't have access to this upload");
+        }
+        return upload;
+    }
+
+    private Document findAccessibleDocument(Long documentId) {
+        UserDetailsImpl userDetails = currentUser();
+
+        Document document = documentRepository.findById(documentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Document not found"));
+
+        if (!userDetails.getDepartmentIds().contains(document.getDepartmentId())) {
+            throw new AccessDeniedException("You don't have access to this document");
+        }
+        return document;
+    }
+
+    private static UserDetailsImpl currentUser() {
+        return (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    }
+
+    // Parameters such as charset don't change what was uploaded
+    private static boolean isSameMediaType(String expected, String actual) {
+        if (actual == null) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaType(expected).equalsTypeAndSubtype(MediaType.parseMediaType(actual));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.dms.document.service;
+
+import com.dms.document.repository.DocumentListView;
+import com.dms.document.repository.DocumentRepository;
+import com.dms.document.security.UserDetailsImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentExportService {
+
+    private static final byte NEWLINE = '\n';
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final DocumentRepository documentRepository;
+    private final DocumentService documentService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Stream all documents visible to the current user as newline-delimited JSON.
+     * Rows are read as projections through a database cursor, so memory use does
+     * not grow with the number of documents.
+     * @param outputStream The response stream to write to
+     */
+    @Transactional(readOnly = true)
+    public void exportDocumentsForUser(OutputStream outputStream) throws IOException {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+
+        long count = 0;
+        try (Stream<DocumentListView> documents = documentRepository.streamByDepartmentIdIn(userDetails.getDepartmentIds())) {
+            Iterator<DocumentListView> iterator = documents.iterator();
+            while (iterator.hasNext()) {
+                DocumentListView document = iterator.next();
+                outputStream.write(objectMapper.writeValueAsBytes(documentService.mapToDocumentResponse(document)));
+                outputStream.write(NEWLINE);
+
+                // Flush the first row immediately so the client gets its first byte early
+                if (count++ % FLUSH_INTERVAL == 0) {
+                    outputStream.flush();
+                }
+            }
+        }
+        outputStream.flush();
+        log.info("Exported {} documents for user: {}", count, userDetails.getUsername());
+    }
+}
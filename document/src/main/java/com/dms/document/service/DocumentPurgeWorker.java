@@ -0,0 +1,166 @@
+package com.dms.document.service;
+
+import com.dms.document.repository.DocumentRepository;
+import com.dms.document.repository.PendingFileDeletionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Removes soft-deleted documents and unreferenced stored objects. Each run hard-deletes the
+ * oldest tombstones in short chunked transactions, releasing the references held by their
+ * current files and prior versions, then drains the file deletion queue with parallel
+ * multi-object requests. Objects that could not be removed stay queued and are retried on
+ * the next run.
+ */
+@Component
+@Slf4j
+public class DocumentPurgeWorker {
+
+    // Upper bound of a single S3 multi-object delete request
+    private static final int MAX_OBJECTS_PER_REQUEST = 1000;
+
+    private final DocumentRepository documentRepository;
+    private final PendingFileDeletionRepository deletionRepository;
+    private final FileBlobService blobService;
+    private final FileStorageService fileStorageService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService objectDeleteExecutor;
+
+    private final Counter documentsPurgedCounter;
+    private final Counter objectsDeletedCounter;
+    private final Counter objectsFailedCounter;
+    private final Timer runTimer;
+    private final AtomicLong pendingTombstones = new AtomicLong();
+
+    @Value("${app.purge.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.purge.object-batch-size:500}")
+    private int objectBatchSize;
+
+    @Value("${app.purge.delete-chunk-size:200}")
+    private int deleteChunkSize;
+
+    public DocumentPurgeWorker(DocumentRepository documentRepository,
+                               PendingFileDeletionRepository deletionRepository,
+                               FileBlobService blobService,
+                               FileStorageService fileStorageService,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.purge.parallelism:4}") int parallelism) {
+        this.documentRepository = documentRepository;
+        this.deletionRepository = deletionRepository;
+        this.blobService = blobService;
+        this.fileStorageService = fileStorageService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectDeleteExecutor = Executors.newFixedThreadPool(parallelism);
+        this.documentsPurgedCounter = Counter.builder("document.purge.documents")
+                .description("Soft-deleted documents removed from the database")
+                .register(meterRegistry);
+        this.objectsDeletedCounter = Counter.builder("document.purge.objects")
+                .description("Unreferenced stored objects removed from MinIO")
+                .register(meterRegistry);
+        this.objectsFailedCounter = Counter.builder("document.purge.objects.failed")
+                .description("Stored objects whose removal failed and will be retried")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("document.purge.run")
+                .description("Time to purge one batch of soft-deleted documents and unreferenced objects")
+                .register(meterRegistry);
+        Gauge.builder("document.purge.pending", pendingTombstones, AtomicLong::get)
+                .description("Soft-deleted documents waiting to be purged")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.purge.interval-ms:60000}")
+    public void purge() {
+        runTimer.record(() -> {
+            List<Long> ids = documentRepository.findTombstonedIds(batchSize);
+            if (!ids.isEmpty()) {
+                purgeDocuments(ids);
+            }
+            deleteQueuedObjects();
+        });
+        pendingTombstones.set(documentRepository.countTombstoned());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        objectDeleteExecutor.shutdown();
+    }
+
+    private void purgeDocuments(List<Long> ids) {
+        int purged = 0;
+        for (int from = 0; from < ids.size(); from += deleteChunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + deleteChunkSize, ids.size()));
+            // Releasing the references and deleting the rows commit together
+            Integer deleted = transactionTemplate.execute(status -> {
+                blobService.release(documentRepository.findFileKeysOfDocuments(chunk));
+                return documentRepository.deleteTombstonedByIdIn(chunk);
+            });
+            purged += deleted != null ? deleted : 0;
+        }
+
+        documentsPurgedCounter.increment(purged);
+        log.info("Purged {} deleted documents", purged);
+    }
+
+    private void deleteQueuedObjects() {
+        List<String> fileKeys = deletionRepository.findNextBatch(batchSize);
+        if (fileKeys.isEmpty()) {
+            return;
+        }
+
+        Set<String> failedKeys = deleteObjects(fileKeys);
+        List<String> deletedKeys = fileKeys.stream()
+                .filter(key -> !failedKeys.contains(key))
+                .toList();
+        for (int from = 0; from < deletedKeys.size(); from += deleteChunkSize) {
+            List<String> chunk = deletedKeys.subList(from, Math.min(from + deleteChunkSize, deletedKeys.size()));
+            transactionTemplate.executeWithoutResult(status -> deletionRepository.deleteAllByIdInBatch(chunk));
+        }
+
+        objectsDeletedCounter.increment(deletedKeys.size());
+        objectsFailedCounter.increment(failedKeys.size());
+        log.info("Deleted {} unreferenced files ({} kept for retry)", deletedKeys.size(), failedKeys.size());
+    }
+
+    private Set<String> deleteObjects(List<String> fileKeys) {
+        int requestSize = Math.max(1, Math.min(objectBatchSize, MAX_OBJECTS_PER_REQUEST));
+        List<CompletableFuture<List<String>>> requests = new ArrayList<>();
+        for (int from = 0; from < fileKeys.size(); from += requestSize) {
+            List<String> batch = fileKeys.subList(from, Math.min(from + requestSize, fileKeys.size()));
+            requests.add(CompletableFuture.supplyAsync(() -> fileStorageService.deleteFiles(batch),
+                    objectDeleteExecutor));
+        }
+
+        Set<String> failedKeys = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                failedKeys.addAll(requests.get(i).join());
+            } catch (RuntimeException e) {
+                int from = i * requestSize;
+                failedKeys.addAll(fileKeys.subList(from, Math.min(from + requestSize, fileKeys.size())));
+                log.warn("Failed to delete a batch of files: {}", e.getMessage());
+            }
+        }
+        return failedKeys;
+    }
+}
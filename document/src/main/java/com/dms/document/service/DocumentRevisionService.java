@@ -0,0 +1,240 @@
+package com.dms.document.service;
+
+import com.dms.document.dto.DocumentVersionPageResponse;
+import com.dms.document.dto.DocumentVersionResponse;
+import com.dms.document.dto.DocumentVersionSummary;
+import com.dms.document.exception.ResourceNotFoundException;
+import com.dms.document.model.Document;
+import com.dms.document.model.DocumentRevision;
+import com.dms.document.repository.DocumentRepository;
+import com.dms.document.repository.DocumentRevisionRepository;
+import com.dms.document.security.UserDetailsImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Version history of documents, stored as per-field deltas. Each change records only the
+ * fields it modified, with their previous values; versions older than the retention cap
+ * are pruned together with the files only they referenced.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentRevisionService {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int PRESIGNED_URL_EXPIRY_MINUTES = 30;
+
+    private static final String TITLE = "title";
+    private static final String DEPARTMENT_ID = "departmentId";
+    private static final String CATEGORY_ID = "categoryId";
+    private static final String FILE_NAME = "fileName";
+    private static final String FILE_DESCRIPTION = "fileDescription";
+    private static final String FILE_TYPE = "fileType";
+    private static final String FILE_SIZE_BYTES = "fileSizeBytes";
+    private static final String FILE_KEY = "fileKey";
+
+    private final DocumentRevisionRepository revisionRepository;
+    private final DocumentRepository documentRepository;
+    private final FileStorageService fileStorageService;
+    private final FileBlobService blobService;
+
+    @Value("${app.document-versions.max-retained:20}")
+    private int maxRetainedRevisions;
+
+    /**
+     * Versioned fields of a document, captured before it is modified
+     */
+    public record Snapshot(Map<String, String> values) {
+        public static Snapshot of(Document document) {
+            Map<String, String> values = new LinkedHashMap<>();
+            values.put(TITLE, document.getTitle());
+            values.put(DEPARTMENT_ID, Objects.toString(document.getDepartmentId(), null));
+            values.put(CATEGORY_ID, Objects.toString(document.getCategory().getId(), null));
+            values.put(FILE_NAME, document.getFileName());
+            values.put(FILE_DESCRIPTION, document.getFileDescription());
+            values.put(FILE_TYPE, document.getFileType());
+            values.put(FILE_SIZE_BYTES, Objects.toString(document.getFileSizeBytes(), null));
+            values.put(FILE_KEY, document.getFileKey());
+            return new Snapshot(values);
+        }
+    }
+
+    /**
+     * Record a change to a document as a new version, if any versioned field changed.
+     * Must run in the transaction that modified the document, after loading it with
+     * {@link DocumentRepository#findByIdForUpdate} so concurrent changes are numbered in turn.
+     * @param before The document's fields before the change
+     * @param after The modified document
+     */
+    @Transactional
+    public void recordChange(Snapshot before, Document after) {
+        Map<String, String> current = Snapshot.of(after).values();
+        Map<String, String> previousValues = new HashMap<>();
+        before.values().forEach((field, value) -> {
+            if (!Objects.equals(value, current.get(field))) {
+                previousValues.put(field, value);
+            }
+        });
+        if (previousValues.isEmpty()) {
+            return;
+        }
+
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+
+        int revision = revisionRepository.findLatestRevision(after.getId()).orElse(1) + 1;
+        revisionRepository.save(DocumentRevision.builder()
+                .documentId(after.getId())
+                .revision(revision)
+                .changedBy(userDetails.getUsername())
+                .changedAt(LocalDateTime.now())
+                .previousValues(previousValues)
+                .build());
+
+        pruneRevisionsBeyondCap(after.getId(), revision);
+    }
+
+    @Transactional(readOnly = true)
+    public DocumentVersionPageResponse getVersions(Long documentId, Integer size, String cursor) {
+        Document document = findAccessibleDocument(documentId);
+
+        int pageSize = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+
+        // Fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<DocumentRevision> revisions = cursor == null || cursor.isBlank()
+                ? revisionRepository.findByDocumentIdOrderByRevisionDesc(documentId, limit)
+                : revisionRepository.findByDocumentIdAndRevisionLessThanOrderByRevisionDesc(
+                        documentId, Integer.parseInt(cursor), limit);
+
+        boolean hasNext = revisions.size() > pageSize;
+        List<DocumentRevision> page = hasNext ? revisions.subList(0, pageSize) : revisions;
+
+        int currentVersion = revisionRepository.findLatestRevision(documentId).orElse(1);
+
+        return DocumentVersionPageResponse.builder()
+                .documentId(document.getId())
+                .currentVersion(currentVersion)
+                .oldestAvailableVersion(oldestAvailableVersion(documentId, currentVersion))
+                .content(page.stream()
+                        .map(revision -> DocumentVersionSummary.builder()
+                                .version(revision.getRevision())
+                                .changedFields(new TreeSet<>(revision.getPreviousValues().keySet()))
+                                .changedBy(revision.getChangedBy())
+                                .changedAt(revision.getChangedAt())
+                                .build())
+                        .collect(Collectors.toList()))
+                .size(page.size())
+                .nextCursor(hasNext ? String.valueOf(page.get(page.size() - 1).getRevision()) : null)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public DocumentVersionResponse getVersion(Long documentId, int version) {
+        Document document = findAccessibleDocument(documentId);
+
+        int currentVersion = revisionRepository.findLatestRevision(documentId).orElse(1);
+        if (version < oldestAvailableVersion(documentId, currentVersion) || version > currentVersion) {
+            throw new ResourceNotFoundException("Version not found");
+        }
+
+        // Walk back from the current state, undoing every change made after the requested version
+        Map<String, String> values = new HashMap<>(Snapshot.of(document).values());
+        // Version 1 is the creation; any other version is credited by its own change, which is
+        // gone for the oldest available version once pruning has run
+        String changedBy = version == 1 ? document.getCreatedBy() : null;
+        LocalDateTime changedAt = version == 1 ? document.getCreatedAt() : null;
+        for (DocumentRevision revision : revisionRepository
+                .findByDocumentIdAndRevisionGreaterThanEqualOrderByRevisionDesc(documentId, version)) {
+            if (revision.getRevision() > version) {
+                values.putAll(revision.getPreviousValues());
+            } else {
+                changedBy = revision.getChangedBy();
+                changedAt = revision.getChangedAt();
+            }
+        }
+
+        String fileKey = values.get(FILE_KEY);
+        return DocumentVersionResponse.builder()
+                .documentId(documentId)
+                .version(version)
+                .current(version == currentVersion)
+                .title(values.get(TITLE))
+                .departmentId(parseLong(values.get(DEPARTMENT_ID)))
+                .categoryId(parseLong(values.get(CATEGORY_ID)))
+                .fileName(values.get(FILE_NAME))
+                .fileDescription(values.get(FILE_DESCRIPTION))
+                .fileType(values.get(FILE_TYPE))
+                .fileSizeBytes(parseLong(values.get(FILE_SIZE_BYTES)))
+                .fileUrl(fileKey != null
+                        ? fileStorageService.generatePresignedUrl(fileKey, PRESIGNED_URL_EXPIRY_MINUTES)
+                        : null)
+                .changedBy(changedBy)
+                .changedAt(changedAt)
+                .build();
+    }
+
+    private Document findAccessibleDocument(Long documentId) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+
+        Document document = documentRepository.findById(documentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Document not found"));
+
+        if (!userDetails.getDepartmentIds().contains(document.getDepartmentId())) {
+            throw new AccessDeniedException("You don't have access to this document");
+        }
+        return document;
+    }
+
+    // The oldest stored change holds the state of the version just before it
+    private int oldestAvailableVersion(Long documentId, int currentVersion) {
+        return revisionRepository.findOldestRevision(documentId)
+                .map(oldest -> oldest - 1)
+                .orElse(currentVersion);
+    }
+
+    private void pruneRevisionsBeyondCap(Long documentId, int latestRevision) {
+        int pruneUpTo = latestRevision - maxRetainedRevisions;
+        if (pruneUpTo < 2) {
+            return;
+        }
+        List<DocumentRevision> expired = revisionRepository.findByDocumentIdAndRevisionLessThanEqual(
+                documentId, pruneUpTo);
+        if (expired.isEmpty()) {
+            return;
+        }
+        revisionRepository.deleteAllInBatch(expired);
+
+        // Each replaced file held a reference through the change that replaced it
+        List<String> expiredFileKeys = expired.stream()
+                .map(revision -> revision.getPreviousValues().get(FILE_KEY))
+                .filter(Objects::nonNull)
+                .toList();
+        if (!expiredFileKeys.isEmpty()) {
+            blobService.release(expiredFileKeys);
+        }
+        log.info("Pruned {} versions of document ID: {}", expired.size(), documentId);
+    }
+
+    private static Long parseLong(String value) {
+        return value != null ? Long.valueOf(value) : null;
+    }
+}
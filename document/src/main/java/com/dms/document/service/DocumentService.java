@@ -1,31 +1,57 @@
 package com.dms.document.service;
 
+import com.dms.document.dto.BulkDocumentRequest;
+import com.dms.document.dto.DocumentPageResponse;
 import com.dms.document.dto.DocumentRequest;
 import com.dms.document.dto.DocumentResponse;
 import com.dms.document.exception.ResourceNotFoundException;
-import com.dms.document.kafka.DocumentKafkaProducer;
 import com.dms.document.model.Document;
 import com.dms.document.model.DocumentCategory;
+import com.dms.document.model.DocumentOutboxEvent;
 import com.dms.document.repository.DocumentCategoryRepository;
+import com.dms.document.repository.DocumentListView;
+import com.dms.document.repository.DocumentOutboxRepository;
 import com.dms.document.repository.DocumentRepository;
+import com.dms.document.repository.DocumentVersionView;
+import com.dms.document.search.TitleSearchIndex;
 import com.dms.document.security.UserDetailsImpl;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class DocumentService {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_SEARCH_RESULTS = 100;
+    private static final int MAX_SEARCH_RESULTS = 1000;
+    private static final int BULK_FLUSH_SIZE = 500;
+
     private final DocumentRepository documentRepository;
     private final DocumentCategoryRepository categoryRepository;
-    private final DocumentKafkaProducer documentKafkaProducer;
+    private final DocumentOutboxRepository outboxRepository;
+    private final TitleSearchIndex titleSearchIndex;
+    private final EntityManager entityManager;
+    private final DocumentStatisticsService statisticsService;
+    private final ResourceVersionService resourceVersionService;
+    private final DocumentRevisionService revisionService;
 
     @Transactional
     public DocumentResponse createDocument(DocumentRequest request) {
@@ -53,23 +79,205 @@ public class DocumentService {
                 .build();
         
         Document savedDocument = documentRepository.save(document);
+        statisticsService.recordCreated(savedDocument);
+        resourceVersionService.bumpDepartment(savedDocument.getDepartmentId());
+        titleSearchIndex.index(savedDocument.getId(), savedDocument.getDepartmentId(),
+                savedDocument.getTitle(), savedDocument.getTranslatedTitle());
         
-        // Send Kafka message for translation
-        documentKafkaProducer.sendDocumentCreatedMessage(savedDocument.getId(), savedDocument.getTitle());
+        // Request translation through the outbox, committed together with the document
+        outboxRepository.save(toOutboxEvent(savedDocument));
         
         return mapToDocumentResponse(savedDocument);
     }
 
+    /**
+     * Create many documents in one transaction. Department access is checked once per
+     * department, categories are resolved in one query, inserts are JDBC-batched and
+     * the persistence context is cleared periodically to keep memory bounded.
+     */
+    @Transactional
+    public List<DocumentResponse> createDocuments(BulkDocumentRequest bulkRequest) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+
+        List<DocumentRequest> requests = bulkRequest.getDocuments();
+
+        Set<Long> departmentIds = requests.stream()
+                .map(DocumentRequest::getDepartmentId)
+                .collect(Collectors.toSet());
+        for (Long departmentId : departmentIds) {
+            if (!userDetails.getDepartmentIds().contains(departmentId)) {
+                throw new AccessDeniedException("You don't have access to department " + departmentId);
+            }
+        }
+
+        Set<Long> categoryIds = requests.stream()
+                .map(DocumentRequest::getCategoryId)
+                .collect(Collectors.toSet());
+        Map<Long, DocumentCategory> categoriesById = categoryRepository.findAllById(categoryIds)
+                .stream()
+                .collect(Collectors.toMap(DocumentCategory::getId, Function.identity()));
+        for (Long categoryId : categoryIds) {
+            if (!categoriesById.containsKey(categoryId)) {
+                throw new ResourceNotFoundException("Category not found: " + categoryId);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Document> savedDocuments = new ArrayList<>(requests.size());
+        List<Document> chunk = new ArrayList<>(BULK_FLUSH_SIZE);
+        for (DocumentRequest request : requests) {
+            chunk.add(Document.builder()
+                    .title(request.getTitle())
+                    .departmentId(request.getDepartmentId())
+                    .category(categoriesById.get(request.getCategoryId()))
+                    .fileName(request.getFileName())
+                    .fileDescription(request.getFileDescription())
+                    .fileType(request.getFileType())
+                    .fileSizeBytes(request.getFileSizeBytes())
+                    .createdBy(userDetails.getUsername())
+                    .createdAt(now)
+                    .build());
+
+            if (chunk.size() == BULK_FLUSH_SIZE) {
+                savedDocuments.addAll(saveChunk(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            savedDocuments.addAll(saveChunk(chunk));
+        }
+
+        statisticsService.recordCreated(savedDocuments);
+        resourceVersionService.bumpDepartments(departmentIds);
+
+        List<DocumentOutboxEvent> outboxEvents = new ArrayList<>(savedDocuments.size());
+        for (Document document : savedDocuments) {
+            titleSearchIndex.index(document.getId(), document.getDepartmentId(),
+                    document.getTitle(), document.getTranslatedTitle());
+            outboxEvents.add(toOutboxEvent(document));
+        }
+
+        // Request translations through the outbox; the inserts are batched at commit
+        outboxRepository.saveAll(outboxEvents);
+
+        return savedDocuments.stream()
+                .map(this::mapToDocumentResponse)
+                .collect(Collectors.toList());
+    }
+
+    private DocumentOutboxEvent toOutboxEvent(Document document) {
+        return DocumentOutboxEvent.builder()
+                .documentId(document.getId())
+                .title(document.getTitle())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    // A cached tombstone would still be returned by findById, since the deleted_at restriction only applies to SQL
+    private void evictFromSecondLevelCacheAfterCommit(Long id) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityManager.getEntityManagerFactory().getCache().evict(Document.class, id);
+            }
+        });
+    }
+
+    private List<Document> saveChunk(List<Document> chunk) {
+        List<Document> saved = documentRepository.saveAll(chunk);
+        entityManager.flush();
+        entityManager.clear();
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
     public List<DocumentResponse> getAllDocumentsForUser() {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
                 .getAuthentication().getPrincipal();
         
-        return documentRepository.findByDepartmentIdIn(userDetails.getDepartmentIds())
+        return documentRepository.findListViewsInDepartments(userDetails.getDepartmentIds())
                 .stream()
                 .map(this::mapToDocumentResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get a page of documents visible to the current user using keyset pagination
+     * @param size Requested page size (clamped to MAX_PAGE_SIZE)
+     * @param cursor Continuation token returned by the previous page, or null for the first page
+     * @return The page of documents and the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    public DocumentPageResponse getDocumentPageForUser(Integer size, String cursor) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+
+        int pageSize = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+
+        // Fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<DocumentListView> documents;
+        if (cursor == null || cursor.isBlank()) {
+            documents = documentRepository.findFirstPageInDepartments(userDetails.getDepartmentIds(), limit);
+        } else {
+            DocumentCursor after = DocumentCursor.decode(cursor);
+            documents = documentRepository.findPageAfterInDepartments(
+                    userDetails.getDepartmentIds(), after.createdAt(), after.id(), limit);
+        }
+
+        boolean hasNext = documents.size() > pageSize;
+        List<DocumentListView> page = hasNext ? documents.subList(0, pageSize) : documents;
+
+        String nextCursor = null;
+        if (hasNext) {
+            DocumentListView last = page.get(page.size() - 1);
+            nextCursor = new DocumentCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return DocumentPageResponse.builder()
+                .content(page.stream()
+                        .map(this::mapToDocumentResponse)
+                        .collect(Collectors.toList()))
+                .size(page.size())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Strong ETag for a single document, derived from its id, last modification time and the
+     * categories counter (the response embeds the category name) without loading the entity.
+     * Access is checked so the ETag never leaks existence.
+     */
+    @Transactional(readOnly = true)
+    public String getDocumentETag(Long id) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+
+        DocumentVersionView version = documentRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Document not found"));
+
+        if (!userDetails.getDepartmentIds().contains(version.getDepartmentId())) {
+            throw new AccessDeniedException("You don't have access to this document");
+        }
+
+        LocalDateTime modifiedAt = version.getUpdatedAt() != null ? version.getUpdatedAt() : version.getCreatedAt();
+        long micros = modifiedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + modifiedAt.getNano() / 1_000;
+        return "\"" + id + "-" + micros + "-" + resourceVersionService.getCategoriesVersion() + "\"";
+    }
+
+    /**
+     * ETag for the current user's document list, based on the change counters of their departments
+     */
+    @Transactional(readOnly = true)
+    public String getDocumentListETag() {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+
+        return resourceVersionService.getDepartmentsETag(userDetails.getDepartmentIds());
+    }
+
+    @Transactional(readOnly = true)
     public DocumentResponse getDocumentById(Long id) {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
                 .getAuthentication().getPrincipal();
@@ -90,7 +298,7 @@ public class DocumentService {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
                 .getAuthentication().getPrincipal();
         
-        Document document = documentRepository.findById(id)
+        Document document = documentRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Document not found"));
         
         // Check if user has access to the document's department
@@ -108,6 +316,8 @@ public class DocumentService {
         
         // Check if title has changed
         boolean titleChanged = !document.getTitle().equals(request.getTitle());
+        DocumentStatisticsService.Snapshot before = DocumentStatisticsService.Snapshot.of(document);
+        DocumentRevisionService.Snapshot revisionBefore = DocumentRevisionService.Snapshot.of(document);
         
         document.setTitle(request.getTitle());
         document.setDepartmentId(request.getDepartmentId());
@@ -119,10 +329,15 @@ public class DocumentService {
         document.setUpdatedAt(LocalDateTime.now());
         
         Document updatedDocument = documentRepository.save(document);
+        statisticsService.recordChanged(before, updatedDocument);
+        revisionService.recordChange(revisionBefore, updatedDocument);
+        resourceVersionService.bumpDepartments(List.of(before.departmentId(), updatedDocument.getDepartmentId()));
+        titleSearchIndex.index(updatedDocument.getId(), updatedDocument.getDepartmentId(),
+                updatedDocument.getTitle(), updatedDocument.getTranslatedTitle());
         
         // If title was updated, request a new translation
         if (titleChanged) {
-            documentKafkaProducer.sendDocumentCreatedMessage(updatedDocument.getId(), updatedDocument.getTitle());
+            outboxRepository.save(toOutboxEvent(updatedDocument));
         }
         
         return mapToDocumentResponse(updatedDocument);
@@ -133,7 +348,9 @@ public class DocumentService {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
                 .getAuthentication().getPrincipal();
         
-        Document document = documentRepository.findById(id)
+        // Locked like every other change: the tombstone is saved with all its columns, so a stale
+        // copy would write back a file key or department that a concurrent change replaced
+        Document document = documentRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Document not found"));
         
         // Check if user has access to the document's department
@@ -141,17 +358,67 @@ public class DocumentService {
             throw new AccessDeniedException("You don't have access to this document");
         }
         
-        documentRepository.delete(document);
+        document.setDeletedAt(LocalDateTime.now());
+        documentRepository.save(document);
+        statisticsService.recordDeleted(document);
+        resourceVersionService.bumpDepartment(document.getDepartmentId());
+        titleSearchIndex.remove(id);
+        evictFromSecondLevelCacheAfterCommit(id);
     }
 
-    public List<DocumentResponse> searchDocumentsByTitle(String keyword) {
+    /**
+     * Ranked full-text search on titles and translated titles
+     * @param keyword The search text
+     * @param limit Maximum number of results (defaults to DEFAULT_SEARCH_RESULTS, clamped to MAX_SEARCH_RESULTS)
+     * @return The best matches, most relevant first
+     */
+    @Transactional(readOnly = true)
+    public List<DocumentResponse> searchDocumentsByTitle(String keyword, Integer limit) {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
                 .getAuthentication().getPrincipal();
         
         Set<Long> departmentIds = userDetails.getDepartmentIds();
         
-        return documentRepository.searchByTitleInDepartments(keyword, departmentIds)
+        List<Long> ids = documentRepository.fullTextSearchIdsInDepartments(keyword, departmentIds, searchLimit(limit));
+        return findDocumentResponsesInOrder(ids);
+    }
+
+    /**
+     * Search titles using the in-memory index instead of the database
+     * @param keyword The search text; the last word is matched as a prefix
+     * @param limit Maximum number of results (defaults to DEFAULT_SEARCH_RESULTS, clamped to MAX_SEARCH_RESULTS)
+     * @return Matching documents, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<DocumentResponse> searchDocumentsInIndex(String keyword, Integer limit) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+
+        if (!titleSearchIndex.isReady()) {
+            return searchDocumentsByTitle(keyword, limit);
+        }
+
+        List<Long> ids = titleSearchIndex.search(keyword, userDetails.getDepartmentIds(), searchLimit(limit));
+        return findDocumentResponsesInOrder(ids);
+    }
+
+    private static int searchLimit(Integer limit) {
+        return limit == null || limit <= 0 ? DEFAULT_SEARCH_RESULTS : Math.min(limit, MAX_SEARCH_RESULTS);
+    }
+
+    // Load listing projections for the given IDs, keeping the order of the IDs (e.g. search rank)
+    private List<DocumentResponse> findDocumentResponsesInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, DocumentListView> viewsById = documentRepository.findListViewsByIdIn(ids)
                 .stream()
+                .collect(Collectors.toMap(DocumentListView::getId, Function.identity()));
+
+        return ids.stream()
+                .map(viewsById::get)
+                .filter(Objects::nonNull)
                 .map(this::mapToDocumentResponse)
                 .collect(Collectors.toList());
     }
@@ -176,4 +443,21 @@ public class DocumentService {
                 
         return response;
     }
+
+    public DocumentResponse mapToDocumentResponse(DocumentListView view) {
+        return DocumentResponse.builder()
+                .id(view.getId())
+                .title(view.getTitle())
+                .translatedTitle(view.getTranslatedTitle())
+                .departmentId(view.getDepartmentId())
+                .category(new DocumentResponse.CategoryDto(view.getCategoryId(), view.getCategoryName()))
+                .fileName(view.getFileName())
+                .fileDescription(view.getFileDescription())
+                .fileType(view.getFileType())
+                .fileSizeBytes(view.getFileSizeBytes())
+                .createdBy(view.getCreatedBy())
+                .createdAt(view.getCreatedAt())
+                .updatedAt(view.getUpdatedAt())
+                .build();
+    }
 }
\ No newline at end of file
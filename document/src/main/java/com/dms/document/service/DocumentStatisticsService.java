@@ -0,0 +1,131 @@
+package com.dms.document.service;
+
+import com.dms.document.dto.DepartmentStatisticsResponse;
+import com.dms.document.model.Document;
+import com.dms.document.model.DocumentCategory;
+import com.dms.document.model.DocumentStatistics;
+import com.dms.document.repository.DocumentCategoryRepository;
+import com.dms.document.repository.DocumentStatisticsRepository;
+import com.dms.document.security.UserDetailsImpl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class DocumentStatisticsService {
+
+    // Rows are always upserted in this order, so transactions touching the same rows can't deadlock
+    private static final Comparator<DocumentStatistics.Key> KEY_ORDER =
+            Comparator.comparing(DocumentStatistics.Key::getDepartmentId)
+                    .thenComparing(DocumentStatistics.Key::getCategoryId);
+
+    private final DocumentStatisticsRepository statisticsRepository;
+    private final DocumentCategoryRepository categoryRepository;
+
+    /**
+     * Snapshot of the fields that feed the counters, taken before a document is modified
+     */
+    public record Snapshot(Long departmentId, Long categoryId, Long fileSizeBytes) {
+        public static Snapshot of(Document document) {
+            return new Snapshot(document.getDepartmentId(), document.getCategory().getId(), document.getFileSizeBytes());
+        }
+    }
+
+    public void recordCreated(Document document) {
+        statisticsRepository.applyDelta(document.getDepartmentId(), document.getCategory().getId(),
+                1, size(document.getFileSizeBytes()));
+    }
+
+    /**
+     * Record many created documents with one upsert per (department, category)
+     */
+    public void recordCreated(Collection<Document> documents) {
+        Map<DocumentStatistics.Key, long[]> deltas = new TreeMap<>(KEY_ORDER);
+        for (Document document : documents) {
+            long[] delta = deltas.computeIfAbsent(
+                    new DocumentStatistics.Key(document.getDepartmentId(), document.getCategory().getId()),
+                    key -> new long[2]);
+            delta[0]++;
+            delta[1] += size(document.getFileSizeBytes());
+        }
+        applyDeltas(deltas);
+    }
+
+    public void recordDeleted(Document document) {
+        statisticsRepository.applyDelta(document.getDepartmentId(), document.getCategory().getId(),
+                -1, -size(document.getFileSizeBytes()));
+    }
+
+    public void recordChanged(Snapshot before, Document after) {
+        Snapshot current = Snapshot.of(after);
+        if (Objects.equals(before.departmentId(), current.departmentId())
+                && Objects.equals(before.categoryId(), current.categoryId())) {
+            long sizeDelta = size(current.fileSizeBytes()) - size(before.fileSizeBytes());
+            if (sizeDelta != 0) {
+                statisticsRepository.applyDelta(current.departmentId(), current.categoryId(), 0, sizeDelta);
+            }
+            return;
+        }
+
+        // Opposite moves (A to B and B to A) would otherwise lock the two rows in opposite order
+        Map<DocumentStatistics.Key, long[]> deltas = new TreeMap<>(KEY_ORDER);
+        deltas.put(new DocumentStatistics.Key(before.departmentId(), before.categoryId()),
+                new long[]{-1, -size(before.fileSizeBytes())});
+        deltas.put(new DocumentStatistics.Key(current.departmentId(), current.categoryId()),
+                new long[]{1, size(current.fileSizeBytes())});
+        applyDeltas(deltas);
+    }
+
+    /**
+     * Get document statistics for the departments the current user has access to
+     */
+    @Transactional(readOnly = true)
+    public List<DepartmentStatisticsResponse> getStatisticsForUser() {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+
+        List<DocumentStatistics> rows = statisticsRepository.findByDepartmentIdIn(userDetails.getDepartmentIds());
+
+        Set<Long> categoryIds = rows.stream()
+                .map(DocumentStatistics::getCategoryId)
+                .collect(Collectors.toSet());
+        Map<Long, String> categoryNames = categoryRepository.findAllById(categoryIds)
+                .stream()
+                .collect(Collectors.toMap(DocumentCategory::getId, DocumentCategory::getName));
+
+        Map<Long, List<DocumentStatistics>> rowsByDepartment = rows.stream()
+                .filter(row -> row.getDocumentCount() > 0)
+                .collect(Collectors.groupingBy(DocumentStatistics::getDepartmentId, TreeMap::new, Collectors.toList()));
+
+        return rowsByDepartment.entrySet()
+                .stream()
+                .map(entry -> DepartmentStatisticsResponse.builder()
+                        .departmentId(entry.getKey())
+                        .documentCount(entry.getValue().stream().mapToLong(DocumentStatistics::getDocumentCount).sum())
+                        .totalFileSizeBytes(entry.getValue().stream().mapToLong(DocumentStatistics::getTotalFileSizeBytes).sum())
+                        .categories(entry.getValue().stream()
+                                .map(row -> DepartmentStatisticsResponse.CategoryStatistics.builder()
+                                        .categoryId(row.getCategoryId())
+                                        .categoryName(categoryNames.get(row.getCategoryId()))
+                                        .documentCount(row.getDocumentCount())
+                                        .totalFileSizeBytes(row.getTotalFileSizeBytes())
+                                        .build())
+                                .collect(Collectors.toList()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private void applyDeltas(Map<DocumentStatistics.Key, long[]> deltas) {
+        deltas.forEach((key, delta) ->
+                statisticsRepository.applyDelta(key.getDepartmentId(), key.getCategoryId(), delta[0], delta[1]));
+    }
+
+    private static long size(Long fileSizeBytes) {
+        return fileSizeBytes == null ? 0 : fileSizeBytes;
+    }
+}
@@ -0,0 +1,128 @@
+package com.dms.document.service;
+
+import com.dms.document.dto.StorageStats;
+import com.dms.document.repository.FileBlobRepository;
+import com.dms.document.repository.FileBlobStatsView;
+import com.dms.document.repository.PendingFileDeletionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reference counting for content-addressed objects. Every document file key and every prior
+ * version in the revision history holds one reference; objects whose last reference is dropped
+ * are queued in the same transaction and removed from storage by the purge worker.
+ */
+@Service
+@Slf4j
+public class FileBlobService {
+
+    private final FileBlobRepository blobRepository;
+    private final PendingFileDeletionRepository deletionRepository;
+
+    private final Counter dedupHitsCounter;
+    private final Counter bytesSavedCounter;
+    private final AtomicReference<StorageStats> lastStats = new AtomicReference<>(StorageStats.builder().build());
+
+    public FileBlobService(FileBlobRepository blobRepository,
+                           PendingFileDeletionRepository deletionRepository,
+                           MeterRegistry meterRegistry) {
+        this.blobRepository = blobRepository;
+        this.deletionRepository = deletionRepository;
+        this.dedupHitsCounter = Counter.builder("document.storage.dedup.hits")
+                .description("Uploads whose content was already stored")
+                .register(meterRegistry);
+        this.bytesSavedCounter = Counter.builder("document.storage.dedup.bytes.saved")
+                .description("Bytes not stored because the uploaded content already existed")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("document.storage.dedup.ratio", lastStats, stats -> stats.get().getDedupRatio())
+                .description("Referenced bytes divided by stored bytes")
+                .register(meterRegistry);
+        Gauge.builder("document.storage.bytes.stored", lastStats, stats -> stats.get().getStoredBytes())
+                .description("Bytes stored in content-addressed objects")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("document.storage.bytes.referenced", lastStats, stats -> stats.get().getReferencedBytes())
+                .description("Bytes referenced by documents and prior versions")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Take a reference to an uploaded object. If an object with the same content already
+     * exists, that object is used and the uploaded copy is queued for deletion.
+     * Must run in the transaction that stores the returned key.
+     * @param storedFile The object that was just uploaded
+     * @return The key the document should reference
+     */
+    @Transactional
+    public String acquire(FileStorageService.StoredFile storedFile) {
+        String key = blobRepository.acquire(storedFile.sha256(), storedFile.key(), storedFile.sizeBytes(),
+                LocalDateTime.now());
+        if (!key.equals(storedFile.key())) {
+            deletionRepository.enqueue(storedFile.key(), LocalDateTime.now());
+            recordDedupHitAfterCommit(storedFile.sizeBytes());
+            log.info("Upload {} has the same content as {}, reusing it", storedFile.key(), key);
+        }
+        return key;
+    }
+
+    /**
+     * Drop one reference per key (a key may appear several times). Objects left without
+     * references, and objects stored before deduplication, are queued for deletion.
+     * Must run in the transaction that removes the references.
+     * @param fileKeys The keys whose references are removed
+     */
+    @Transactional
+    public void release(Collection<String> fileKeys) {
+        LocalDateTime now = LocalDateTime.now();
+        for (String fileKey : fileKeys) {
+            boolean unreferenced = blobRepository.decrement(fileKey)
+                    .map(remaining -> remaining <= 0 && blobRepository.deleteIfUnreferenced(fileKey) > 0)
+                    .orElse(true);
+            if (unreferenced) {
+                deletionRepository.enqueue(fileKey, now);
+            }
+        }
+    }
+
+    public StorageStats getStats() {
+        FileBlobStatsView view = blobRepository.getStats();
+        long storedBytes = view.getStoredBytes();
+        long referencedBytes = view.getReferencedBytes();
+        return StorageStats.builder()
+                .blobs(view.getBlobCount())
+                .references(view.getReferenceCount())
+                .storedBytes(storedBytes)
+                .referencedBytes(referencedBytes)
+                .bytesSaved(referencedBytes - storedBytes)
+                .dedupRatio(storedBytes > 0 ? (double) referencedBytes / storedBytes : 1.0)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${app.storage.stats-interval-ms:60000}")
+    public void refreshStats() {
+        lastStats.set(getStats());
+    }
+
+    private void recordDedupHitAfterCommit(long sizeBytes) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dedupHitsCounter.increment();
+                bytesSavedCounter.increment(sizeBytes);
+            }
+        });
+    }
+}
@@ -12,9 +12,15 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -24,65 +30,147 @@ public class FileService {
     private final DocumentRepository documentRepository;
     private final FileStorageService fileStorageService;
     private final DocumentService documentService;
+    private final DocumentStatisticsService statisticsService;
+    private final ResourceVersionService resourceVersionService;
+    private final DocumentRevisionService revisionService;
+    private final TransactionTemplate transactionTemplate;
+    private final FileBlobService blobService;
     
     private static final int PRESIGNED_URL_EXPIRY_MINUTES = 30;
 
-    @Transactional
+    /**
+     * Upload a file and attach it to a document. The upload to MinIO runs outside any
+     * transaction so no database connection is held while the file is streamed; the
+     * document is checked before and updated after in short transactions. If the update
+     * fails the uploaded object is removed again.
+     * @param file The file to upload
+     * @param request The document to attach it to and an optional description
+     * @return The updated document with a presigned URL to the new file
+     */
     public DocumentResponse uploadFile(MultipartFile file, FileUploadRequest request) {
-        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
-                .getAuthentication().getPrincipal();
+        return storeAndAttach(request, file.getOriginalFilename(), file.getContentType(),
+                () -> fileStorageService.uploadFile(file, request.getDocumentId()));
+    }
+
+    /**
+     * Upload a file from a raw request body and attach it to a document. The body is piped
+     * to MinIO as it arrives instead of being spooled to a temporary file first.
+     * @param content The request body
+     * @param contentLength The declared content length, or -1 for a chunked body
+     * @param fileName The original file name
+     * @param contentType The declared content type
+     * @param request The document to attach it to and an optional description
+     * @return The updated document with a presigned URL to the new file
+     */
+    public DocumentResponse uploadFileStream(InputStream content, long contentLength, String fileName,
+                                             String contentType, FileUploadRequest request) {
+        return storeAndAttach(request, fileName, contentType,
+                () -> fileStorageService.uploadStream(content, contentLength, fileName, contentType,
+                        request.getDocumentId()));
+    }
+
+    DocumentResponse storeAndAttach(FileUploadRequest request, String fileName, String contentType,
+                                    Supplier<FileStorageService.StoredFile> upload) {
+        // Read-write template so the check runs on the primary and sees a document created just before
+        transactionTemplate.executeWithoutResult(status -> findAccessibleDocument(request.getDocumentId()));
+        
+        // Upload new file to S3; a replaced file is kept as a prior version
+        FileStorageService.StoredFile storedFile = upload.get();
+        String uploadedKey = storedFile.key();
+        
+        Document updatedDocument;
+        try {
+            updatedDocument = transactionTemplate.execute(
+                    status -> attachFile(request, fileName, contentType, storedFile));
+        } catch (RuntimeException e) {
+            // Compensate: the uploaded object is not referenced by any document
+            log.warn("Failed to attach file {} to document ID: {}, removing it", uploadedKey, request.getDocumentId());
+            try {
+                fileStorageService.deleteFile(uploadedKey);
+            } catch (RuntimeException cleanupFailure) {
+                e.addSuppressed(cleanupFailure);
+            }
+            throw e;
+        }
         
-        // Find document and check permissions
-        Document document = documentRepository.findById(request.getDocumentId())
-                .orElseThrow(() -> new ResourceNotFoundException("Document not found"));
+        // Generate a pre-signed URL for the response
+        String fileUrl = fileStorageService.generatePresignedUrl(updatedDocument.getFileKey(),
+                PRESIGNED_URL_EXPIRY_MINUTES);
         
-        if (!userDetails.getDepartmentIds().contains(document.getDepartmentId())) {
-            throw new AccessDeniedException("You don't have access to this document");
-        }
+        // Map to response
+        DocumentResponse response = documentService.mapToDocumentResponse(updatedDocument);
+        response.setFileUrl(fileUrl);
         
-        // Delete existing file if present
-        if (document.getFileKey() != null) {
-            fileStorageService.deleteFile(document.getFileKey());
+        return response;
+    }
+
+    private Document attachFile(FileUploadRequest request, String fileName, String contentType,
+                                FileStorageService.StoredFile storedFile) {
+        // Re-read and re-check: the document may have been changed or deleted during the upload
+        Document document = findAccessibleDocumentForUpdate(request.getDocumentId());
+        
+        DocumentStatisticsService.Snapshot before = DocumentStatisticsService.Snapshot.of(document);
+        DocumentRevisionService.Snapshot revisionBefore = DocumentRevisionService.Snapshot.of(document);
+        
+        // Identical content is stored once; a duplicate upload is dropped in favour of the existing object
+        String fileKey = blobService.acquire(storedFile);
+        if (fileKey.equals(document.getFileKey())) {
+            // Same content attached again: the document already holds a reference
+            blobService.release(List.of(fileKey));
+        } else if (document.getFileKey() != null) {
+            evictPresignedUrlAfterCommit(document.getFileKey());
         }
         
-        // Upload new file to S3
-        String fileKey = fileStorageService.uploadFile(file, document.getId());
-        
         // Update document with file information
-        document.setFileName(file.getOriginalFilename());
-        document.setFileType(file.getContentType());
-        document.setFileSizeBytes(file.getSize());
+        document.setFileName(fileName);
+        document.setFileType(contentType);
+        document.setFileSizeBytes(storedFile.sizeBytes());
         document.setFileKey(fileKey);
         document.setFileDescription(request.getFileDescription());
         document.setUpdatedAt(LocalDateTime.now());
         
         Document updatedDocument = documentRepository.save(document);
+        statisticsService.recordChanged(before, updatedDocument);
+        revisionService.recordChange(revisionBefore, updatedDocument);
+        resourceVersionService.bumpDepartment(updatedDocument.getDepartmentId());
+        return updatedDocument;
+    }
+
+    private Document findAccessibleDocument(Long documentId) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
         
-        // Generate a pre-signed URL for the response
-        String fileUrl = fileStorageService.generatePresignedUrl(fileKey, PRESIGNED_URL_EXPIRY_MINUTES);
-        
-        // Map to response
-        DocumentResponse response = documentService.mapToDocumentResponse(updatedDocument);
-        response.setFileUrl(fileUrl);
+        Document document = documentRepository.findById(documentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Document not found"));
         
-        return response;
+        if (!userDetails.getDepartmentIds().contains(document.getDepartmentId())) {
+            throw new AccessDeniedException("You don't have access to this document");
+        }
+        return document;
     }
 
-    @Transactional
-    public void deleteFile(Long documentId) {
+    private Document findAccessibleDocumentForUpdate(Long documentId) {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
                 .getAuthentication().getPrincipal();
         
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findByIdForUpdate(documentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Document not found"));
         
         if (!userDetails.getDepartmentIds().contains(document.getDepartmentId())) {
             throw new AccessDeniedException("You don't have access to this document");
         }
+        return document;
+    }
+
+    @Transactional
+    public void deleteFile(Long documentId) {
+        Document document = findAccessibleDocumentForUpdate(documentId);
         
         if (document.getFileKey() != null) {
-            // Delete from S3
-            fileStorageService.deleteFile(document.getFileKey());
+            // The object stays in S3 as a prior version until the retention cap prunes it
+            DocumentStatisticsService.Snapshot before = DocumentStatisticsService.Snapshot.of(document);
+            DocumentRevisionService.Snapshot revisionBefore = DocumentRevisionService.Snapshot.of(document);
+            evictPresignedUrlAfterCommit(document.getFileKey());
             
             // Update document to remove file references
             document.setFileKey(null);
@@ -93,12 +181,16 @@ public class FileService {
             document.setUpdatedAt(LocalDateTime.now());
             
             documentRepository.save(document);
+            statisticsService.recordChanged(before, document);
+            revisionService.recordChange(revisionBefore, document);
+            resourceVersionService.bumpDepartment(document.getDepartmentId());
             log.info("File deleted for document ID: {}", documentId);
         } else {
             log.warn("No file found to delete for document ID: {}", documentId);
         }
     }
 
+    @Transactional(readOnly = true)
     public String generateDownloadUrl(Long documentId) {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
                 .getAuthentication().getPrincipal();
@@ -116,4 +208,14 @@ public class FileService {
         
         return fileStorageService.generatePresignedUrl(document.getFileKey(), PRESIGNED_URL_EXPIRY_MINUTES);
     }
-}
\ No newline at end of file
+
+    // Links handed out for a replaced or removed file must not be reused for this document
+    private void evictPresignedUrlAfterCommit(String fileKey) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                fileStorageService.evictPresignedUrl(fileKey);
+            }
+        });
+    }
+}
@@ -1,14 +1,28 @@
 package com.dms.document.service;
 
+import com.dms.document.config.MultipartMinioClient;
 import io.minio.*;
+import io.minio.errors.ErrorResponseException;
 import io.minio.http.Method;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Part;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -18,24 +32,56 @@ import java.util.concurrent.TimeUnit;
 public class FileStorageService {
 
     private final MinioClient minioClient;
+    private final ParallelMultipartUploader parallelUploader;
+    private final MultipartMinioClient multipartClient;
+    private final PresignedUrlCache presignedUrlCache;
 
     @Value("${minio.bucket-name}")
     private String bucketName;
 
+    @Value("${app.upload.stream.max-size-bytes:2147483648}")
+    private long maxStreamUploadBytes;
+
+    // Files at least this large are uploaded as parallel multipart uploads
+    @Value("${app.upload.parallel.threshold-bytes:67108864}")
+    private long parallelUploadThresholdBytes;
+
+    /**
+     * An object written to storage, with the hex SHA-256 of its content when it was hashed
+     * while streaming (null for objects assembled from separately uploaded parts)
+     */
+    public record StoredFile(String key, long sizeBytes, String sha256) {
+    }
+
+    /**
+     * A multipart upload that has been started but not completed
+     */
+    public record MultipartUpload(String key, String uploadId) {
+    }
+
+    /**
+     * A new object key with a presigned PUT URL; the client must send the given content type
+     */
+    public record PresignedUpload(String key, String url, String contentType) {
+    }
+
+    /**
+     * Size, content type and ETag of a stored object, as reported by the object store
+     */
+    public record StoredObjectInfo(long sizeBytes, String contentType, String etag) {
+    }
+
     /**
      * Upload a file to MinIO storage
      * @param file The file to upload
-     * @param documentId The document ID to associate with the file
-     * @return The object key (path) of the uploaded file
+     * @param documentId The document ID the file is uploaded for
+     * @return The object key (path), size and content hash of the uploaded file
      */
-    public String uploadFile(MultipartFile file, Long documentId) {
+    public StoredFile uploadFile(MultipartFile file, Long documentId) {
         try {
             // Create unique file key with proper path
-            String fileExtension = getFileExtension(file.getOriginalFilename());
-            String key = String.format("documents/%d/%s%s", 
-                    documentId, 
-                    UUID.randomUUID().toString(),
-                    fileExtension);
+            String key = newObjectKey(file.getOriginalFilename());
+            DigestInputStream content = new DigestInputStream(file.getInputStream(), newContentDigest());
 
             ensureBucketExists();
 
@@ -43,23 +89,148 @@ public class FileStorageService {
             String contentType = determineContentType(file.getOriginalFilename(), file.getContentType());
             
             // Upload file to MinIO
-            minioClient.putObject(
-                PutObjectArgs.builder()
-                    .bucket(bucketName)
-                    .object(key)
-                    .contentType(contentType)
-                    .stream(file.getInputStream(), file.getSize(), -1)
-                    .build()
-            );
+            if (file.getSize() >= parallelUploadThresholdBytes) {
+                parallelUploader.upload(bucketName, key, contentType, content);
+            } else {
+                minioClient.putObject(
+                    PutObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(key)
+                        .contentType(contentType)
+                        .stream(content, file.getSize(), -1)
+                        .build()
+                );
+            }
 
-            log.info("File uploaded successfully to path: {}", key);
-            return key;
+            log.info("File uploaded successfully to path: {} (document ID: {})", key, documentId);
+            return new StoredFile(key, file.getSize(), HexFormat.of().formatHex(content.getMessageDigest().digest()));
         } catch (Exception e) {
             log.error("Failed to upload file", e);
             throw new RuntimeException("Failed to upload file: " + e.getMessage());
         }
     }
 
+    /**
+     * Stream a file to MinIO storage without spooling it locally. A small body of known length
+     * is sent as a single object; large or chunked bodies are sent as a parallel multipart
+     * upload that buffers a bounded number of parts.
+     * @param content The file content, read once
+     * @param contentLength The content length in bytes, or -1 if unknown
+     * @param fileName The original file name
+     * @param declaredContentType The content type provided by the client
+     * @param documentId The document ID to associate with the file
+     * @return The object key and the number of bytes stored
+     */
+    public StoredFile uploadStream(InputStream content, long contentLength, String fileName,
+                                   String declaredContentType, Long documentId) {
+        if (contentLength > maxStreamUploadBytes) {
+            throw new MaxUploadSizeExceededException(maxStreamUploadBytes);
+        }
+
+        CountingInputStream countingContent = new CountingInputStream(content, maxStreamUploadBytes);
+        try {
+            String key = newObjectKey(fileName);
+            // Hash while streaming so identical content can be stored once
+            DigestInputStream hashedContent = new DigestInputStream(countingContent, newContentDigest());
+
+            ensureBucketExists();
+
+            String contentType = determineContentType(fileName, declaredContentType);
+            if (contentType == null) {
+                contentType = "application/octet-stream";
+            }
+
+            if (contentLength < 0 || contentLength >= parallelUploadThresholdBytes) {
+                parallelUploader.upload(bucketName, key, contentType, hashedContent);
+            } else {
+                minioClient.putObject(
+                    PutObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(key)
+                        .contentType(contentType)
+                        .stream(hashedContent, contentLength, -1)
+                        .build()
+                );
+            }
+
+            log.info("File streamed successfully to path: {} ({} bytes, document ID: {})",
+                    key, countingContent.getCount(), documentId);
+            return new StoredFile(key, countingContent.getCount(),
+                    HexFormat.of().formatHex(hashedContent.getMessageDigest().digest()));
+        } catch (Exception e) {
+            if (countingContent.isLimitExceeded()) {
+                throw new MaxUploadSizeExceededException(maxStreamUploadBytes);
+            }
+            log.error("Failed to stream file", e);
+            throw new RuntimeException("Failed to upload file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Start a multipart upload whose parts are sent separately, e.g. by a resumable upload session
+     * @param documentId The document ID the file is uploaded for
+     * @param fileName The original file name
+     * @param declaredContentType The content type provided by the client
+     * @return The object key and upload ID
+     */
+    public MultipartUpload startMultipartUpload(Long documentId, String fileName, String declaredContentType) {
+        try {
+            String key = newObjectKey(fileName);
+
+            ensureBucketExists();
+
+            String contentType = determineContentType(fileName, declaredContentType);
+            String uploadId = multipartClient.startMultipartUpload(bucketName, key,
+                    contentType != null ? contentType : "application/octet-stream");
+            log.info("Multipart upload started to path: {} (document ID: {})", key, documentId);
+            return new MultipartUpload(key, uploadId);
+        } catch (Exception e) {
+            log.error("Failed to start multipart upload", e);
+            throw new RuntimeException("Failed to start multipart upload: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Upload one part of a multipart upload; uploading the same part number again replaces it
+     * @return The part's ETag
+     */
+    public String uploadPart(MultipartUpload upload, int partNumber, byte[] data, int length) {
+        try {
+            return multipartClient.uploadPart(bucketName, upload.key(), upload.uploadId(), partNumber, data, length)
+                    .etag();
+        } catch (Exception e) {
+            log.error("Failed to upload part {} of {}", partNumber, upload.key(), e);
+            throw new RuntimeException("Failed to upload part: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Assemble the uploaded parts into the final object
+     * @param parts The parts in ascending part number order
+     */
+    public void completeMultipartUpload(MultipartUpload upload, List<Part> parts) {
+        try {
+            multipartClient.finishMultipartUpload(bucketName, upload.key(), upload.uploadId(),
+                    parts.toArray(new Part[0]));
+            log.info("Multipart upload completed to path: {}", upload.key());
+        } catch (Exception e) {
+            log.error("Failed to complete multipart upload of {}", upload.key(), e);
+            throw new RuntimeException("Failed to complete multipart upload: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Abort a multipart upload, discarding its parts
+     */
+    public void abortMultipartUpload(MultipartUpload upload) {
+        try {
+            multipartClient.abortMultipartUpload(bucketName, upload.key(), upload.uploadId()).join();
+        } catch (Exception e) {
+            log.error("Failed to abort multipart upload of {}", upload.key(), e);
+            throw new RuntimeException("Failed to abort multipart upload: " + e.getMessage());
+        }
+    }
+
     /**
      * Delete a file from MinIO storage
      * @param fileKey The object key of the file to delete
@@ -72,6 +243,7 @@ public class FileStorageService {
                     .object(fileKey)
                     .build()
             );
+            presignedUrlCache.evict(fileKey);
             log.info("File deleted successfully: {}", fileKey);
         } catch (Exception e) {
             log.error("Failed to delete file", e);
@@ -79,6 +251,127 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * Delete several files from MinIO storage in a single request
+     * @param fileKeys The object keys of the files to delete (at most 1000)
+     * @return The keys that could not be deleted
+     */
+    public List<String> deleteFiles(List<String> fileKeys) {
+        List<DeleteObject> objects = fileKeys.stream()
+                .map(DeleteObject::new)
+                .toList();
+        List<String> failedKeys = new ArrayList<>();
+        try {
+            // The request is sent lazily while the results are iterated
+            Iterable<Result<DeleteError>> errors = minioClient.removeObjects(
+                RemoveObjectsArgs.builder()
+                    .bucket(bucketName)
+                    .objects(objects)
+                    .build()
+            );
+            for (Result<DeleteError> result : errors) {
+                DeleteError error = result.get();
+                log.warn("Failed to delete file {}: {}", error.objectName(), error.message());
+                failedKeys.add(error.objectName());
+            }
+        } catch (Exception e) {
+            log.error("Failed to delete files", e);
+            return fileKeys;
+        }
+        fileKeys.forEach(presignedUrlCache::evict);
+        log.debug("Deleted {} of {} files", fileKeys.size() - failedKeys.size(), fileKeys.size());
+        return failedKeys;
+    }
+
+    /**
+     * Generate a pre-signed URL a client can PUT a new file to, so its content bypasses this service
+     * @param documentId The document ID the file is uploaded for
+     * @param fileName The original file name
+     * @param declaredContentType The content type provided by the client
+     * @param durationMinutes How long the URL should be valid for (in minutes)
+     * @return The new object key, the upload URL and the content type to upload with
+     */
+    public PresignedUpload generatePresignedUpload(Long documentId, String fileName, String declaredContentType,
+                                                   int durationMinutes) {
+        try {
+            // Staged under its own prefix: the URL stays writable until it expires
+            String key = String.format("uploads/%s%s", UUID.randomUUID(), getFileExtension(fileName));
+
+            ensureBucketExists();
+
+            String contentType = determineContentType(fileName, declaredContentType);
+            String url = minioClient.getPresignedObjectUrl(
+                GetPresignedObjectUrlArgs.builder()
+                    .bucket(bucketName)
+                    .object(key)
+                    .method(Method.PUT)
+                    .expiry(durationMinutes, TimeUnit.MINUTES)
+                    .build()
+            );
+            log.info("Presigned upload prepared to path: {} (document ID: {})", key, documentId);
+            return new PresignedUpload(key, url, contentType != null ? contentType : "application/octet-stream");
+        } catch (Exception e) {
+            log.error("Failed to generate presigned upload URL", e);
+            throw new RuntimeException("Failed to generate presigned upload URL: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Look up a stored object
+     * @param fileKey The object key (path) of the file
+     * @return The object's size and content type, or empty if there is no such object
+     */
+    public Optional<StoredObjectInfo> statFile(String fileKey) {
+        try {
+            StatObjectResponse stat = minioClient.statObject(
+                StatObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(fileKey)
+                    .build()
+            );
+            return Optional.of(new StoredObjectInfo(stat.size(), stat.contentType(), stat.etag()));
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return Optional.empty();
+            }
+            log.error("Failed to stat file", e);
+            throw new RuntimeException("Failed to stat file: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Failed to stat file", e);
+            throw new RuntimeException("Failed to stat file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Copy an object to a new key inside the object store, without passing its content through
+     * this service. The copy fails if the object no longer has the given ETag.
+     * @param sourceKey The object key (path) of the file to copy (at most 5 GB)
+     * @param etag The ETag the source object must still have
+     * @param fileName The original file name
+     * @return The object key of the copy
+     */
+    public String copyFile(String sourceKey, String etag, String fileName) {
+        try {
+            String key = newObjectKey(fileName);
+            minioClient.copyObject(
+                CopyObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(key)
+                    .source(CopySource.builder()
+                        .bucket(bucketName)
+                        .object(sourceKey)
+                        .matchETag(etag)
+                        .build())
+                    .build()
+            );
+            log.info("File copied from {} to {}", sourceKey, key);
+            return key;
+        } catch (Exception e) {
+            log.error("Failed to copy file", e);
+            throw new RuntimeException("Failed to copy file: " + e.getMessage());
+        }
+    }
+
     /**
      * Generate a pre-signed URL for temporary file access
      * @param fileKey The object key of the file
@@ -86,6 +379,18 @@ public class FileStorageService {
      * @return A pre-signed URL for file access
      */
     public String generatePresignedUrl(String fileKey, int durationMinutes) {
+        return presignedUrlCache.get(fileKey, durationMinutes, () -> signDownloadUrl(fileKey, durationMinutes));
+    }
+
+    /**
+     * Stop handing out the cached download URL of an object
+     * @param fileKey The object key (path) of the file
+     */
+    public void evictPresignedUrl(String fileKey) {
+        presignedUrlCache.evict(fileKey);
+    }
+
+    private String signDownloadUrl(String fileKey, int durationMinutes) {
         try {
             return minioClient.getPresignedObjectUrl(
                 GetPresignedObjectUrlArgs.builder()
@@ -123,6 +428,21 @@ public class FileStorageService {
         }
     }
     
+    // Objects may be shared by several documents once deduplicated, so keys carry no document ID
+    private String newObjectKey(String filename) {
+        return String.format("blobs/%s%s",
+                UUID.randomUUID().toString(),
+                getFileExtension(filename));
+    }
+
+    private static MessageDigest newContentDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     private String getFileExtension(String filename) {
         if (filename == null || filename.isEmpty() || !filename.contains(".")) {
             return "";
@@ -0,0 +1,167 @@
+package com.dms.document.service;
+
+import com.dms.document.config.MultipartMinioClient;
+import io.minio.messages.Part;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Uploads large objects as S3 multipart uploads with several parts in flight at once.
+ * The stream is cut into fixed-size parts; at most {@code parallelism} parts per upload
+ * are buffered, and each part is retried on its own before the whole upload is aborted.
+ */
+@Component
+@Slf4j
+public class ParallelMultipartUploader {
+
+    // S3 minimum for every part except the last
+    private static final int MIN_PART_SIZE_BYTES = 5 * 1024 * 1024;
+
+    private final MultipartMinioClient client;
+    private final ExecutorService partExecutor;
+    private final int partSizeBytes;
+    private final int parallelism;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+
+    public ParallelMultipartUploader(MultipartMinioClient client,
+                                     @Value("${app.upload.parallel.part-size-bytes:16777216}") int partSizeBytes,
+                                     @Value("${app.upload.parallel.parallelism:4}") int parallelism,
+                                     @Value("${app.upload.parallel.executor-threads:16}") int executorThreads,
+                                     @Value("${app.upload.parallel.max-attempts:3}") int maxAttempts,
+                                     @Value("${app.upload.parallel.retry-backoff-ms:200}") long retryBackoffMs) {
+        this.client = client;
+        this.partSizeBytes = Math.max(partSizeBytes, MIN_PART_SIZE_BYTES);
+        this.parallelism = Math.max(parallelism, 1);
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.retryBackoffMs = retryBackoffMs;
+        // Shared by all uploads so concurrent large uploads cannot multiply the thread count
+        this.partExecutor = Executors.newFixedThreadPool(Math.max(executorThreads, 1));
+    }
+
+    /**
+     * Upload a stream of any length as a multipart upload
+     * @param bucket The bucket to upload to
+     * @param key The object key
+     * @param contentType The content type to store with the object
+     * @param content The content, read until end of stream
+     * @return The number of bytes uploaded
+     */
+    public long upload(String bucket, String key, String contentType, InputStream content) {
+        String uploadId;
+        try {
+            uploadId = client.startMultipartUpload(bucket, key, contentType);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to start multipart upload: " + e.getMessage(), e);
+        }
+
+        long startNanos = System.nanoTime();
+        Semaphore freeBuffers = new Semaphore(parallelism);
+        AtomicBoolean partFailed = new AtomicBoolean();
+        List<CompletableFuture<Part>> parts = new ArrayList<>();
+        long totalBytes = 0;
+        try {
+            int partNumber = 1;
+            boolean lastPart = false;
+            // Stop reading once a part has failed for good; the join below reports the failure
+            while (!lastPart && !partFailed.get()) {
+                // Wait for a buffer before reading more, so memory stays at parallelism * part size
+                freeBuffers.acquire();
+                // The buffer may have been freed by the part that failed
+                if (partFailed.get()) {
+                    freeBuffers.release();
+                    break;
+                }
+                byte[] buffer = new byte[partSizeBytes];
+                int length;
+                try {
+                    length = content.readNBytes(buffer, 0, partSizeBytes);
+                } catch (Exception e) {
+                    freeBuffers.release();
+                    throw e;
+                }
+                // An empty read ends the stream; only an empty object uploads an empty part
+                if (length == 0 && partNumber > 1) {
+                    freeBuffers.release();
+                    break;
+                }
+                lastPart = length < partSizeBytes;
+                totalBytes += length;
+
+                int number = partNumber++;
+                parts.add(CompletableFuture
+                        .supplyAsync(() -> uploadPartWithRetry(bucket, key, uploadId, number, buffer, length),
+                                partExecutor)
+                        .whenComplete((part, error) -> {
+                            if (error != null) {
+                                partFailed.set(true);
+                            }
+                            freeBuffers.release();
+                        }));
+            }
+
+            Part[] uploadedParts = new Part[parts.size()];
+            for (int i = 0; i < parts.size(); i++) {
+                uploadedParts[i] = parts.get(i).join();
+            }
+            client.finishMultipartUpload(bucket, key, uploadId, uploadedParts);
+
+            long elapsedMs = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+            log.info("Uploaded {} bytes in {} parts to {} in {} ms ({} MB/s)", totalBytes, uploadedParts.length,
+                    key, elapsedMs, totalBytes * 1000 / elapsedMs / (1024 * 1024));
+            return totalBytes;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            parts.forEach(part -> part.cancel(false));
+            abortQuietly(bucket, key, uploadId);
+            throw new RuntimeException("Multipart upload failed: " + e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        partExecutor.shutdown();
+    }
+
+    private Part uploadPartWithRetry(String bucket, String key, String uploadId, int partNumber,
+                                     byte[] data, int length) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return client.uploadPart(bucket, key, uploadId, partNumber, data, length);
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    throw new RuntimeException("Failed to upload part " + partNumber + " after "
+                            + attempt + " attempts: " + e.getMessage(), e);
+                }
+                log.warn("Retrying part {} of {} (attempt {} failed: {})", partNumber, key, attempt, e.getMessage());
+                try {
+                    Thread.sleep(retryBackoffMs * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while retrying part " + partNumber, interrupted);
+                }
+            }
+        }
+    }
+
+    private void abortQuietly(String bucket, String key, String uploadId) {
+        try {
+            client.abortMultipartUpload(bucket, key, uploadId).join();
+        } catch (Exception e) {
+            log.warn("Failed to abort multipart upload {} of {}: {}", uploadId, key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.dms.document.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.io.Serializable;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of presigned download URLs by object key. A URL is handed out again while
+ * more than the configured fraction of its lifetime remains, so clients never receive a link
+ * that is about to expire; after that the entry expires and the next request signs a new one.
+ */
+@Component
+public class PresignedUrlCache {
+
+    private static final String CACHE_NAME = "presignedUrl";
+
+    private final CacheManager cacheManager;
+    private final Cache<String, PresignedUrl> cache;
+    private final double minRemainingFraction;
+
+    /**
+     * A signed URL and the instant after which it is no longer handed out
+     */
+    record PresignedUrl(String url, int durationMinutes, Instant reusableUntil) implements Serializable {
+    }
+
+    public PresignedUrlCache(MeterRegistry meterRegistry,
+                             @Value("${app.storage.presigned-urls.max-entries:10000}") long maxEntries,
+                             @Value("${app.storage.presigned-urls.min-remaining-fraction:0.5}") double minRemainingFraction) {
+        if (!(minRemainingFraction >= 0 && minRemainingFraction < 1)) {
+            throw new IllegalArgumentException(
+                    "app.storage.presigned-urls.min-remaining-fraction must be in [0, 1), got " + minRemainingFraction);
+        }
+        this.minRemainingFraction = minRemainingFraction;
+
+        // A manager of its own rather than the provider's shared default one, so another
+        // application context in the same JVM (tests, devtools restarts) gets its own cache
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName(), getClass().getClassLoader());
+        this.cacheManager = provider.getCacheManager(URI.create("urn:dms:" + CACHE_NAME + ":" + UUID.randomUUID()),
+                ConfigurationBuilder.newConfigurationBuilder().build());
+        this.cache = cacheManager.createCache(CACHE_NAME, Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(String.class, PresignedUrl.class,
+                                ResourcePoolsBuilder.heap(maxEntries))
+                        .withExpiry(new ReuseWindowExpiry())
+                        .build()));
+        cacheManager.enableStatistics(CACHE_NAME, true);
+        JCacheMetrics.monitor(meterRegistry, cache);
+    }
+
+    /**
+     * Return a cached URL for the object, or sign a new one and cache it
+     * @param fileKey The object key
+     * @param durationMinutes The lifetime of a newly signed URL
+     * @param signer Signs a new URL valid for durationMinutes
+     * @return A URL valid for more than the configured fraction of durationMinutes
+     */
+    public String get(String fileKey, int durationMinutes, Supplier<String> signer) {
+        PresignedUrl cached = cache.get(fileKey);
+        Instant now = Instant.now();
+        if (cached != null && cached.durationMinutes() == durationMinutes && cached.reusableUntil().isAfter(now)) {
+            return cached.url();
+        }
+
+        String url = signer.get();
+        long reusableMillis = (long) (Duration.ofMinutes(durationMinutes).toMillis() * (1 - minRemainingFraction));
+        if (reusableMillis > 0) {
+            cache.put(fileKey, new PresignedUrl(url, durationMinutes, now.plusMillis(reusableMillis)));
+        }
+        return url;
+    }
+
+    /**
+     * Forget the URL of an object that was replaced or deleted
+     * @param fileKey The object key
+     */
+    public void evict(String fileKey) {
+        cache.remove(fileKey);
+    }
+
+    @PreDestroy
+    public void close() {
+        cacheManager.close();
+    }
+
+    // Each entry lives exactly as long as its URL may be reused; reads don't extend it
+    private static class ReuseWindowExpiry implements ExpiryPolicy<String, PresignedUrl> {
+        @Override
+        public Duration getExpiryForCreation(String key, PresignedUrl value) {
+            Duration remaining = Duration.between(Instant.now(), value.reusableUntil());
+            return remaining.isNegative() ? Duration.ZERO : remaining;
+        }
+
+        @Override
+        public Duration getExpiryForAccess(String key, Supplier<? extends PresignedUrl> value) {
+            return null;
+        }
+
+        @Override
+        public Duration getExpiryForUpdate(String key, Supplier<? extends PresignedUrl> oldValue,
+                                           PresignedUrl newValue) {
+            return getExpiryForCreation(key, newValue);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.dms.document.service;
+
+import com.dms.document.model.ResourceVersion;
+import com.dms.document.repository.ResourceVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains per-resource change counters and derives ETags from them.
+ * Counters are bumped in the same transaction as the change they track.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResourceVersionService {
+
+    private static final String CATEGORIES_KEY = "categories";
+    private static final String DEPARTMENT_KEY_PREFIX = "department:";
+
+    private final ResourceVersionRepository resourceVersionRepository;
+
+    public void bumpDepartment(Long departmentId) {
+        resourceVersionRepository.increment(DEPARTMENT_KEY_PREFIX + departmentId);
+    }
+
+    public void bumpDepartments(Collection<Long> departmentIds) {
+        // Sorted to take row locks in a consistent order
+        new TreeSet<>(departmentIds).forEach(this::bumpDepartment);
+    }
+
+    public void bumpDepartmentsOfDocuments(Collection<Long> documentIds) {
+        if (!documentIds.isEmpty()) {
+            resourceVersionRepository.incrementDepartmentsOfDocuments(documentIds);
+        }
+    }
+
+    public void bumpCategories() {
+        resourceVersionRepository.increment(CATEGORIES_KEY);
+    }
+
+    /**
+     * ETag for the document list of a set of departments, derived from their change counters.
+     * Listings embed category names, so the categories counter is part of the ETag too.
+     */
+    public String getDepartmentsETag(Set<Long> departmentIds) {
+        Set<String> keys = departmentIds.stream()
+                .map(id -> DEPARTMENT_KEY_PREFIX + id)
+                .collect(Collectors.toCollection(TreeSet::new));
+        keys.add(CATEGORIES_KEY);
+        Map<String, Long> versions = resourceVersionRepository.findByResourceKeyIn(keys)
+                .stream()
+                .collect(Collectors.toMap(ResourceVersion::getResourceKey, ResourceVersion::getVersion));
+
+        String fingerprint = keys.stream()
+                .map(key -> key + "=" + versions.getOrDefault(key, 0L))
+                .collect(Collectors.joining(","));
+        return "\"" + DigestUtils.md5DigestAsHex(fingerprint.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    public long getCategoriesVersion() {
+        return resourceVersionRepository.findById(CATEGORIES_KEY)
+                .map(ResourceVersion::getVersion)
+                .orElse(0L);
+    }
+
+    public String getCategoriesETag() {
+        return "\"categories-" + getCategoriesVersion() + "\"";
+    }
+}
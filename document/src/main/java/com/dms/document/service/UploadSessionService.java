@@ -0,0 +1,300 @@
+package com.dms.document.service;
+
+import com.dms.document.dto.DocumentResponse;
+import com.dms.document.dto.FileUploadRequest;
+import com.dms.document.dto.UploadSessionRequest;
+import com.dms.document.dto.UploadSessionResponse;
+import com.dms.document.exception.ResourceNotFoundException;
+import com.dms.document.model.Document;
+import com.dms.document.model.UploadSession;
+import com.dms.document.model.UploadSessionChunk;
+import com.dms.document.repository.DocumentRepository;
+import com.dms.document.repository.UploadSessionChunkRepository;
+import com.dms.document.repository.UploadSessionRepository;
+import com.dms.document.security.UserDetailsImpl;
+import io.minio.messages.Part;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Resumable uploads. A session maps to one object-store multipart upload and each numbered
+ * chunk to the part with the same number, so chunks can arrive in any order, in parallel, or
+ * again after a disconnect. Object-store I/O runs outside transactions; session state is read
+ * and written in short transactions on the primary.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UploadSessionService {
+
+    // S3 minimum for every part except the last
+    private static final int MIN_CHUNK_SIZE_BYTES = 5 * 1024 * 1024;
+    // S3 maximum number of parts in a multipart upload
+    private static final int MAX_CHUNKS = 10_000;
+    private static final int EXPIRY_BATCH_SIZE = 100;
+
+    private final UploadSessionRepository sessionRepository;
+    private final UploadSessionChunkRepository chunkRepository;
+    private final DocumentRepository documentRepository;
+    private final FileStorageService fileStorageService;
+    private final FileService fileService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.upload.sessions.chunk-size-bytes:8388608}")
+    private int chunkSizeBytes;
+
+    @Value("${app.upload.sessions.max-size-bytes:2147483648}")
+    private long maxSizeBytes;
+
+    @Value("${app.upload.sessions.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    public UploadSessionResponse createSession(UploadSessionRequest request) {
+        UserDetailsImpl userDetails = currentUser();
+
+        int chunkSize = Math.max(chunkSizeBytes, MIN_CHUNK_SIZE_BYTES);
+        long fileSize = request.getFileSizeBytes();
+        if (fileSize > maxSizeBytes) {
+            throw new MaxUploadSizeExceededException(maxSizeBytes);
+        }
+        int totalChunks = (int) Math.max(1, (fileSize + chunkSize - 1) / chunkSize);
+        if (totalChunks > MAX_CHUNKS) {
+            throw new IllegalArgumentException("File needs more than " + MAX_CHUNKS + " chunks");
+        }
+
+        transactionTemplate.executeWithoutResult(status -> findAccessibleDocument(request.getDocumentId()));
+
+        FileStorageService.MultipartUpload upload = fileStorageService.startMultipartUpload(
+                request.getDocumentId(), request.getFileName(), request.getContentType());
+
+        LocalDateTime now = LocalDateTime.now();
+        UploadSession session = UploadSession.builder()
+                .id(UUID.randomUUID().toString())
+                .documentId(request.getDocumentId())
+                .createdBy(userDetails.getUsername())
+                .fileName(request.getFileName())
+                .contentType(request.getContentType())
+                .fileDescription(request.getFileDescription())
+                .fileSizeBytes(fileSize)
+                .chunkSizeBytes(chunkSize)
+                .totalChunks(totalChunks)
+                .objectKey(upload.key())
+                .multipartUploadId(upload.uploadId())
+                .createdAt(now)
+                .expiresAt(now.plusMinutes(ttlMinutes))
+                .build();
+        try {
+            transactionTemplate.executeWithoutResult(status -> sessionRepository.save(session));
+        } catch (RuntimeException e) {
+            abortQuietly(upload);
+            throw e;
+        }
+
+        log.info("Upload session {} opened for document ID: {} ({} chunks)", session.getId(),
+                session.getDocumentId(), totalChunks);
+        return toResponse(session, List.of());
+    }
+
+    /**
+     * Store one chunk. Every chunk except the last must be exactly the session's chunk size.
+     * @param sessionId The upload session
+     * @param chunkNumber The chunk number, from 1 to the session's total chunks
+     * @param content The chunk content
+     * @return The session state after the chunk was stored
+     */
+    public UploadSessionResponse uploadChunk(String sessionId, int chunkNumber, InputStream content) {
+        UploadSession session = transactionTemplate.execute(status -> findOwnedSession(sessionId));
+
+        if (chunkNumber < 1 || chunkNumber > session.getTotalChunks()) {
+            throw new IllegalArgumentException("Chunk number must be between 1 and " + session.getTotalChunks());
+        }
+        int expectedSize = expectedChunkSize(session, chunkNumber);
+
+        // Read one byte past the expected size to detect oversized chunks
+        byte[] buffer = new byte[expectedSize + 1];
+        int length;
+        try {
+            length = content.readNBytes(buffer, 0, buffer.length);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read chunk: " + e.getMessage());
+        }
+        if (length != expectedSize) {
+            throw new IllegalArgumentException("Chunk " + chunkNumber + " must be " + expectedSize + " bytes");
+        }
+
+        String etag = fileStorageService.uploadPart(toMultipartUpload(session), chunkNumber, buffer, length);
+
+        return transactionTemplate.execute(status -> {
+            chunkRepository.upsert(sessionId, chunkNumber, etag, length);
+            return toResponse(session, chunkRepository.findBySessionIdOrderByChunkNumber(sessionId));
+        });
+    }
+
+    public UploadSessionResponse getSession(String sessionId) {
+        return transactionTemplate.execute(status -> {
+            UploadSession session = findOwnedSession(sessionId);
+            return toResponse(session, chunkRepository.findBySessionIdOrderByChunkNumber(sessionId));
+        });
+    }
+
+    /**
+     * Complete the multipart upload from the received chunks and attach the file to the document.
+     * The session is claimed by removing it first, so a concurrent complete cannot attach the file
+     * twice. A failed completion aborts the upload; its multipart upload ID cannot be reused, so
+     * the client has to start a new session.
+     * @param sessionId The upload session
+     * @return The updated document
+     */
+    public DocumentResponse completeSession(String sessionId) {
+        UploadSession session = transactionTemplate.execute(status -> findOwnedSession(sessionId));
+        List<UploadSessionChunk> chunks = transactionTemplate.execute(
+                status -> chunkRepository.findBySessionIdOrderByChunkNumber(sessionId));
+
+        if (chunks.size() != session.getTotalChunks()) {
+            throw new IllegalArgumentException("Upload is incomplete: " + chunks.size() + " of "
+                    + session.getTotalChunks() + " chunks received");
+        }
+
+        Integer claimed = transactionTemplate.execute(status -> sessionRepository.deleteAndCount(sessionId));
+        if (claimed == null || claimed == 0) {
+            throw new ResourceNotFoundException("Upload session not found");
+        }
+
+        FileUploadRequest request = FileUploadRequest.builder()
+                .documentId(session.getDocumentId())
+                .fileDescription(session.getFileDescription())
+                .build();
+
+        AtomicBoolean assembled = new AtomicBoolean();
+        DocumentResponse response;
+        try {
+            response = fileService.storeAndAttach(request, session.getFileName(),
+                    session.getContentType(), () -> {
+                        fileStorageService.completeMultipartUpload(toMultipartUpload(session), chunks.stream()
+                                .map(chunk -> new Part(chunk.getChunkNumber(), chunk.getEtag()))
+                                .toList());
+                        assembled.set(true);
+                        // Parts arrive out of order, so the content is not hashed and not deduplicated
+                        return new FileStorageService.StoredFile(session.getObjectKey(), session.getFileSizeBytes(), null);
+                    });
+        } catch (RuntimeException e) {
+            // An assembled object was already removed by storeAndAttach; otherwise discard the parts
+            if (!assembled.get()) {
+                abortQuietly(toMultipartUpload(session));
+            }
+            log.warn("Upload session {} failed to complete for document ID: {}", sessionId, session.getDocumentId());
+            throw e;
+        }
+
+        log.info("Upload session {} completed for document ID: {}", sessionId, session.getDocumentId());
+        return response;
+    }
+
+    public void cancelSession(String sessionId) {
+        UploadSession session = transactionTemplate.execute(status -> findOwnedSession(sessionId));
+        abortQuietly(toMultipartUpload(session));
+        transactionTemplate.executeWithoutResult(status -> sessionRepository.deleteById(sessionId));
+    }
+
+    /**
+     * Abort abandoned sessions so the object store discards their parts
+     */
+    @Scheduled(fixedDelayString = "${app.upload.sessions.cleanup-interval-ms:600000}")
+    public void expireAbandonedSessions() {
+        List<UploadSession> expired;
+        do {
+            expired = transactionTemplate.execute(status -> sessionRepository.findByExpiresAtBeforeOrderByExpiresAt(
+                    LocalDateTime.now(), PageRequest.of(0, EXPIRY_BATCH_SIZE)));
+            for (UploadSession session : expired) {
+                abortQuietly(toMultipartUpload(session));
+            }
+            List<String> ids = expired.stream().map(UploadSession::getId).toList();
+            transactionTemplate.executeWithoutResult(status -> sessionRepository.deleteAllByIdInBatch(ids));
+            if (!expired.isEmpty()) {
+                log.info("Expired {} abandoned upload sessions", expired.size());
+            }
+        } while (expired.size() == EXPIRY_BATCH_SIZE);
+    }
+
+    private UploadSession findOwnedSession(String sessionId) {
+        UserDetailsImpl userDetails = currentUser();
+
+        UploadSession session = sessionRepository.findById(sessionId)
+                .filter(found -> found.getExpiresAt().isAfter(LocalDateTime.now()))
+                .orElseThrow(() -> new ResourceNotFoundException("Upload session not found"));
+
+        if (!session.getCreatedBy().equals(userDetails.getUsername())) {
+            throw new AccessDeniedException("You don't have access to this upload session");
+        }
+        return session;
+    }
+
+    private Document findAccessibleDocument(Long documentId) {
+        UserDetailsImpl userDetails = currentUser();
+
+        Document document = documentRepository.findById(documentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Document not found"));
+
+        if (!userDetails.getDepartmentIds().contains(document.getDepartmentId())) {
+            throw new AccessDeniedException("You don't have access to this document");
+        }
+        return document;
+    }
+
+    private static UserDetailsImpl currentUser() {
+        return (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    }
+
+    private static int expectedChunkSize(UploadSession session, int chunkNumber) {
+        if (chunkNumber < session.getTotalChunks()) {
+            return session.getChunkSizeBytes();
+        }
+        return (int) (session.getFileSizeBytes() - (long) (session.getTotalChunks() - 1) * session.getChunkSizeBytes());
+    }
+
+    private static FileStorageService.MultipartUpload toMultipartUpload(UploadSession session) {
+        return new FileStorageService.MultipartUpload(session.getObjectKey(), session.getMultipartUploadId());
+    }
+
+    private void abortQuietly(FileStorageService.MultipartUpload upload) {
+        try {
+            fileStorageService.abortMultipartUpload(upload);
+        } catch (RuntimeException e) {
+            log.warn("Failed to abort multipart upload of {}: {}", upload.key(), e.getMessage());
+        }
+    }
+
+    private static UploadSessionResponse toResponse(UploadSession session, List<UploadSessionChunk> chunks) {
+        char[] bitmap = new char[session.getTotalChunks()];
+        Arrays.fill(bitmap, '0');
+        for (UploadSessionChunk chunk : chunks) {
+            bitmap[chunk.getChunkNumber() - 1] = '1';
+        }
+        return UploadSessionResponse.builder()
+                .sessionId(session.getId())
+                .documentId(session.getDocumentId())
+                .fileSizeBytes(session.getFileSizeBytes())
+                .chunkSizeBytes(session.getChunkSizeBytes())
+                .totalChunks(session.getTotalChunks())
+                .receivedChunks(chunks.size())
+                .receivedBitmap(new String(bitmap))
+                .expiresAt(session.getExpiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,7 @@
+-- Confirmed and cancelled uploads are kept, closed, until their PUT URL expires: deleting the
+-- staged object earlier would let a late PUT recreate it with nothing left to clean it up.
+-- Existing rows expire no earlier than their URL, so expires_at is a safe backfill.
+ALTER TABLE direct_uploads ADD COLUMN IF NOT EXISTS url_expires_at timestamp(6);
+UPDATE direct_uploads SET url_expires_at = expires_at WHERE url_expires_at IS NULL;
+ALTER TABLE direct_uploads ALTER COLUMN url_expires_at SET NOT NULL;
+ALTER TABLE direct_uploads ADD COLUMN IF NOT EXISTS closed_at timestamp(6);
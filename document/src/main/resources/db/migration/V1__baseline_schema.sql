@@ -0,0 +1,60 @@
+-- Schema previously maintained by ddl-auto=update. IF NOT EXISTS lets this run on
+-- databases created that way (baseline-on-migrate) as well as on empty ones.
+CREATE TABLE IF NOT EXISTS document_categories (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        varchar(255) NOT NULL UNIQUE,
+    description varchar(255)
+);
+
+-- Pooled id sequence; the increment must match the entity's allocationSize
+CREATE SEQUENCE IF NOT EXISTS documents_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS documents (
+    id               bigint PRIMARY KEY,
+    title            varchar(255) NOT NULL,
+    translated_title varchar(255),
+    department_id    bigint NOT NULL,
+    category_id      bigint NOT NULL REFERENCES document_categories (id),
+    file_name        varchar(255),
+    file_description varchar(255),
+    file_type        varchar(255),
+    file_size_bytes  bigint,
+    file_key         varchar(255),
+    created_by       varchar(255) NOT NULL,
+    created_at       timestamp(6) NOT NULL,
+    updated_at       timestamp(6)
+);
+
+-- Move the pooled id sequence past ids assigned by the former identity column; never moves it backwards
+SELECT setval('documents_seq', GREATEST(
+    (SELECT COALESCE(MAX(id), 1) FROM documents),
+    (SELECT last_value FROM documents_seq)));
+
+CREATE SEQUENCE IF NOT EXISTS document_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS document_outbox (
+    id          bigint PRIMARY KEY,
+    document_id bigint NOT NULL,
+    title       varchar(255) NOT NULL,
+    created_at  timestamp(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS document_statistics (
+    department_id         bigint NOT NULL,
+    category_id           bigint NOT NULL,
+    document_count        bigint NOT NULL,
+    total_file_size_bytes bigint NOT NULL,
+    PRIMARY KEY (department_id, category_id)
+);
+
+-- Seed per-department counters from existing documents the first time the table is created
+INSERT INTO document_statistics (department_id, category_id, document_count, total_file_size_bytes)
+SELECT department_id, category_id, COUNT(*), COALESCE(SUM(file_size_bytes), 0)
+FROM documents
+WHERE NOT EXISTS (SELECT 1 FROM document_statistics)
+GROUP BY department_id, category_id;
+
+CREATE TABLE IF NOT EXISTS resource_versions (
+    resource_key varchar(255) PRIMARY KEY,
+    version      bigint NOT NULL
+);
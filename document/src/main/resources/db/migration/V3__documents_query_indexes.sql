@@ -0,0 +1,8 @@
+-- Department listings and keyset pages: WHERE department_id IN (...) ORDER BY created_at DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_documents_department_created ON documents (department_id, created_at, id);
+
+-- findByCategoryId, and the foreign key check when a category is deleted
+CREATE INDEX IF NOT EXISTS idx_documents_category ON documents (category_id);
+
+-- findByCreatedBy
+CREATE INDEX IF NOT EXISTS idx_documents_created_by ON documents (created_by);
@@ -0,0 +1,12 @@
+-- Version history as per-field deltas: each row holds only the fields a change modified
+CREATE SEQUENCE IF NOT EXISTS document_revisions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS document_revisions (
+    id              bigint PRIMARY KEY,
+    document_id     bigint NOT NULL REFERENCES documents (id) ON DELETE CASCADE,
+    revision        integer NOT NULL,
+    changed_by      varchar(255) NOT NULL,
+    changed_at      timestamp(6) NOT NULL,
+    previous_values jsonb NOT NULL,
+    CONSTRAINT uk_document_revisions_document_revision UNIQUE (document_id, revision)
+);
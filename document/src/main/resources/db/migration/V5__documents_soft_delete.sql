@@ -0,0 +1,4 @@
+-- Tombstone for soft-deleted documents; the purge worker removes them oldest first
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS deleted_at timestamp(6);
+
+CREATE INDEX IF NOT EXISTS idx_documents_deleted_at ON documents (deleted_at) WHERE deleted_at IS NOT NULL;
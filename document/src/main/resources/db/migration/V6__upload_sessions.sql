@@ -0,0 +1,26 @@
+-- Resumable upload sessions; each received chunk is one part of the session's multipart upload
+CREATE TABLE IF NOT EXISTS upload_sessions (
+    id                  varchar(255) PRIMARY KEY,
+    document_id         bigint NOT NULL,
+    created_by          varchar(255) NOT NULL,
+    file_name           varchar(255) NOT NULL,
+    content_type        varchar(255),
+    file_description    varchar(255),
+    file_size_bytes     bigint NOT NULL,
+    chunk_size_bytes    integer NOT NULL,
+    total_chunks        integer NOT NULL,
+    object_key          varchar(255) NOT NULL,
+    multipart_upload_id varchar(255) NOT NULL,
+    created_at          timestamp(6) NOT NULL,
+    expires_at          timestamp(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_upload_sessions_expires_at ON upload_sessions (expires_at);
+
+CREATE TABLE IF NOT EXISTS upload_session_chunks (
+    session_id   varchar(255) NOT NULL REFERENCES upload_sessions (id) ON DELETE CASCADE,
+    chunk_number integer NOT NULL,
+    etag         varchar(255) NOT NULL,
+    size_bytes   integer NOT NULL,
+    PRIMARY KEY (session_id, chunk_number)
+);
@@ -0,0 +1,15 @@
+-- Content-addressed, reference-counted objects. Objects stored before this migration have no
+-- row and keep their single-owner behaviour: releasing them queues them for deletion directly.
+CREATE TABLE IF NOT EXISTS file_blobs (
+    object_key varchar(255) PRIMARY KEY,
+    sha256     varchar(64) UNIQUE,
+    size_bytes bigint NOT NULL,
+    ref_count  bigint NOT NULL,
+    created_at timestamp(6) NOT NULL
+);
+
+-- Objects whose last reference is gone, drained by the purge worker
+CREATE TABLE IF NOT EXISTS file_deletions (
+    object_key varchar(255) PRIMARY KEY,
+    created_at timestamp(6) NOT NULL
+);
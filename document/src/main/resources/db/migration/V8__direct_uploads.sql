@@ -0,0 +1,14 @@
+-- Uploads sent straight to the object store through presigned PUT URLs, waiting to be confirmed
+CREATE TABLE IF NOT EXISTS direct_uploads (
+    id               varchar(255) PRIMARY KEY,
+    document_id      bigint NOT NULL,
+    created_by       varchar(255) NOT NULL,
+    file_name        varchar(255) NOT NULL,
+    content_type     varchar(255) NOT NULL,
+    file_description varchar(255),
+    object_key       varchar(255) NOT NULL,
+    created_at       timestamp(6) NOT NULL,
+    expires_at       timestamp(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_direct_uploads_expires_at ON direct_uploads (expires_at);
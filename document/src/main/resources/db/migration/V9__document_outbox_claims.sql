@@ -0,0 +1,2 @@
+-- Relay runs claim events for a lease instead of holding row locks while waiting for Kafka
+ALTER TABLE document_outbox ADD COLUMN IF NOT EXISTS claimed_until timestamp(6);
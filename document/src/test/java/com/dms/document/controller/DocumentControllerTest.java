@@ -0,0 +1,235 @@
+package com.dms.document.controller;
+
+import com.dms.document.dto.CategoryRequest;
+import com.dms.document.model.Document;
+import com.dms.document.model.DocumentCategory;
+import com.dms.document.model.ResourceVersion;
+import com.dms.document.repository.DocumentCategoryRepository;
+import com.dms.document.repository.DocumentListView;
+import com.dms.document.repository.DocumentOutboxRepository;
+import com.dms.document.repository.DocumentRepository;
+import com.dms.document.repository.DocumentVersionView;
+import com.dms.document.repository.ResourceVersionRepository;
+import com.dms.document.search.TitleSearchIndex;
+import com.dms.document.security.JwtUtils;
+import com.dms.document.security.UserDetailsImpl;
+import com.dms.document.service.CategoryService;
+import com.dms.document.service.DocumentExportService;
+import com.dms.document.service.DocumentRevisionService;
+import com.dms.document.service.DocumentService;
+import com.dms.document.service.DocumentStatisticsService;
+import com.dms.document.service.FileService;
+import com.dms.document.service.ResourceVersionService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional GETs run through the real DocumentService, CategoryService and ResourceVersionService
+ * with the repositories mocked, so ETags react to changes made through the services
+ */
+@WebMvcTest(controllers = DocumentController.class)
+@Import({DocumentService.class, CategoryService.class, ResourceVersionService.class})
+class DocumentControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @MockBean
+    private DocumentRepository documentRepository;
+
+    @MockBean
+    private DocumentCategoryRepository categoryRepository;
+
+    @MockBean
+    private ResourceVersionRepository resourceVersionRepository;
+
+    @MockBean
+    private DocumentOutboxRepository outboxRepository;
+
+    @MockBean
+    private TitleSearchIndex titleSearchIndex;
+
+    @MockBean
+    private EntityManager entityManager;
+
+    @MockBean
+    private DocumentStatisticsService statisticsService;
+
+    @MockBean
+    private DocumentRevisionService revisionService;
+
+    @MockBean
+    private FileService fileService;
+
+    @MockBean
+    private DocumentExportService documentExportService;
+
+    @MockBean
+    private JwtUtils jwtUtils;
+
+    private final Map<String, Long> versions = new HashMap<>();
+
+    private UserDetailsImpl principal;
+    private DocumentCategory category;
+
+    @BeforeEach
+    void setUp() {
+        principal = UserDetailsImpl.builder()
+                .id(1L)
+                .username("user@example.com")
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_USER")))
+                .departmentIds(Set.of(10L))
+                .build();
+
+        category = DocumentCategory.builder()
+                .id(7L)
+                .name("Invoices")
+                .build();
+
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 9, 30);
+        Document document = Document.builder()
+                .id(1L)
+                .title("Q1 invoice")
+                .departmentId(10L)
+                .category(category)
+                .createdBy("user@example.com")
+                .createdAt(createdAt)
+                .build();
+
+        DocumentVersionView versionView = mock(DocumentVersionView.class);
+        when(versionView.getId()).thenReturn(1L);
+        when(versionView.getDepartmentId()).thenReturn(10L);
+        when(versionView.getCreatedAt()).thenReturn(createdAt);
+
+        // The listing projection reads the category name as the database would after the rename
+        DocumentListView listView = mock(DocumentListView.class);
+        when(listView.getId()).thenReturn(1L);
+        when(listView.getTitle()).thenReturn("Q1 invoice");
+        when(listView.getDepartmentId()).thenReturn(10L);
+        when(listView.getCategoryId()).thenReturn(7L);
+        when(listView.getCategoryName()).thenAnswer(invocation -> category.getName());
+        when(listView.getCreatedAt()).thenReturn(createdAt);
+
+        when(documentRepository.findVersionById(1L)).thenReturn(Optional.of(versionView));
+        when(documentRepository.findById(1L)).thenReturn(Optional.of(document));
+        when(documentRepository.findListViewsInDepartments(Set.of(10L))).thenReturn(List.of(listView));
+
+        when(categoryRepository.findById(7L)).thenReturn(Optional.of(category));
+        when(categoryRepository.findByName(anyString())).thenReturn(Optional.empty());
+        when(categoryRepository.save(any(DocumentCategory.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Change counters backed by a map, as the resource_versions table would be
+        when(resourceVersionRepository.increment(anyString()))
+                .thenAnswer(invocation -> {
+                    versions.merge(invocation.getArgument(0), 1L, Long::sum);
+                    return 1;
+                });
+        when(resourceVersionRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(versions.get(invocation.<String>getArgument(0)))
+                        .map(version -> new ResourceVersion(invocation.getArgument(0), version)));
+        when(resourceVersionRepository.findByResourceKeyIn(anyCollection()))
+                .thenAnswer(invocation -> invocation.<Collection<String>>getArgument(0).stream()
+                        .filter(versions::containsKey)
+                        .map(key -> new ResourceVersion(key, versions.get(key)))
+                        .toList());
+    }
+
+    @Test
+    void getDocumentById_withCurrentETag_shouldReturnNotModified() throws Exception {
+        // Arrange
+        String eTag = getETag("/api/documents/1");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/documents/1")
+                        .with(user(principal))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getDocumentById_afterCategoryRename_shouldReturnNewCategoryName() throws Exception {
+        // Arrange
+        String eTag = getETag("/api/documents/1");
+
+        // Act
+        categoryService.updateCategory(7L, new CategoryRequest("Contracts", null));
+
+        // Assert
+        String newETag = mockMvc.perform(get("/api/documents/1")
+                        .with(user(principal))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.category.name").value("Contracts"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, newETag);
+    }
+
+    @Test
+    void getAllDocuments_withCurrentETag_shouldReturnNotModified() throws Exception {
+        // Arrange
+        String eTag = getETag("/api/documents");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/documents")
+                        .with(user(principal))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getAllDocuments_afterCategoryRename_shouldReturnNewCategoryName() throws Exception {
+        // Arrange
+        String eTag = getETag("/api/documents");
+
+        // Act
+        categoryService.updateCategory(7L, new CategoryRequest("Contracts", null));
+
+        // Assert
+        mockMvc.perform(get("/api/documents")
+                        .with(user(principal))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].category.name").value("Contracts"));
+    }
+
+    private String getETag(String path) throws Exception {
+        return mockMvc.perform(get(path).with(user(principal)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$..category.name").value("Invoices"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,79 @@
+package com.dms.document.kafka;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranslationCoalescerTest {
+
+    @Test
+    void coalesce_distinctDocuments_shouldKeepAllInOrder() {
+        // Arrange
+        TranslationCompletedMessage first = message(1L, "Bonjour");
+        TranslationCompletedMessage second = message(2L, "Salut");
+
+        // Act
+        List<TranslationCompletedMessage> result = TranslationCoalescer.coalesce(List.of(first, second));
+
+        // Assert
+        assertEquals(List.of(first, second), result);
+    }
+
+    @Test
+    void coalesce_sameDocumentTwice_shouldKeepLastResult() {
+        // Arrange
+        TranslationCompletedMessage older = message(1L, "Contrat v1");
+        TranslationCompletedMessage newer = message(1L, "Contrat v2");
+
+        // Act
+        List<TranslationCompletedMessage> result = TranslationCoalescer.coalesce(List.of(older, newer));
+
+        // Assert
+        assertEquals(List.of(newer), result);
+    }
+
+    @Test
+    void coalesce_shouldPlaceDocumentAtItsNewestResult() {
+        // Arrange
+        TranslationCompletedMessage olderOne = message(1L, "Contrat v1");
+        TranslationCompletedMessage two = message(2L, "Facture");
+        TranslationCompletedMessage newerOne = message(1L, "Contrat v2");
+
+        // Act
+        List<TranslationCompletedMessage> result = TranslationCoalescer.coalesce(List.of(olderOne, two, newerOne));
+
+        // Assert
+        assertEquals(List.of(two, newerOne), result);
+    }
+
+    @Test
+    void coalesce_shouldSkipNullMessagesAndIds() {
+        // Arrange
+        TranslationCompletedMessage valid = message(1L, "Bonjour");
+
+        // Act
+        List<TranslationCompletedMessage> result = TranslationCoalescer.coalesce(
+                Arrays.asList(null, message(null, "Orphelin"), valid));
+
+        // Assert
+        assertEquals(List.of(valid), result);
+    }
+
+    @Test
+    void coalesce_emptyBatch_shouldReturnEmptyList() {
+        // Act & Assert
+        assertTrue(TranslationCoalescer.coalesce(List.of()).isEmpty());
+    }
+
+    private static TranslationCompletedMessage message(Long id, String translatedTitle) {
+        return TranslationCompletedMessage.builder()
+                .id(id)
+                .originalTitle("Original")
+                .translatedTitle(translatedTitle)
+                .language("fr")
+                .build();
+    }
+}
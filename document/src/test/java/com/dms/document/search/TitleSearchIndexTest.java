@@ -0,0 +1,227 @@
+package com.dms.document.search;
+
+import com.dms.document.repository.DocumentRepository;
+import com.dms.document.repository.DocumentTitleView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TitleSearchIndexTest {
+
+    private static final Set<Long> ALL_DEPARTMENTS = Set.of(10L, 20L);
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    private TitleSearchIndex titleSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        titleSearchIndex = new TitleSearchIndex(documentRepository);
+        ReflectionTestUtils.setField(titleSearchIndex, "enabled", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void buildIndex_shouldIndexTitlesAndTranslatedTitles() {
+        // Arrange
+        DocumentTitleView contract = titleView(1L, 10L, "Annual contract", "Contrat annuel");
+        DocumentTitleView invoice = titleView(2L, 20L, "Invoice", null);
+        when(documentRepository.streamAllTitles()).thenReturn(Stream.of(contract, invoice));
+
+        // Act
+        titleSearchIndex.buildIndex();
+
+        // Assert
+        assertTrue(titleSearchIndex.isReady());
+        assertEquals(List.of(1L), titleSearchIndex.search("contrat", ALL_DEPARTMENTS, 10));
+        assertEquals(List.of(2L), titleSearchIndex.search("invoice", ALL_DEPARTMENTS, 10));
+        assertEquals(2, titleSearchIndex.getStats().getDocuments());
+    }
+
+    @Test
+    void buildIndex_whenDisabled_shouldNotLoadTitles() {
+        // Arrange
+        ReflectionTestUtils.setField(titleSearchIndex, "enabled", false);
+
+        // Act
+        titleSearchIndex.buildIndex();
+        titleSearchIndex.index(1L, 10L, "Annual contract", null);
+
+        // Assert
+        assertFalse(titleSearchIndex.isReady());
+        assertTrue(titleSearchIndex.search("contract", ALL_DEPARTMENTS, 10).isEmpty());
+        verifyNoInteractions(documentRepository);
+    }
+
+    @Test
+    void search_shouldRequireEveryTokenAndMatchLastAsPrefix() {
+        // Arrange
+        titleSearchIndex.index(1L, 10L, "Annual contract renewal", null);
+        titleSearchIndex.index(2L, 10L, "Annual report", null);
+        titleSearchIndex.index(3L, 10L, "Contractor list", null);
+
+        // Act & Assert
+        assertEquals(List.of(3L, 1L), titleSearchIndex.search("contr", ALL_DEPARTMENTS, 10));
+        assertEquals(List.of(1L), titleSearchIndex.search("annual contr", ALL_DEPARTMENTS, 10));
+        // Only the last token is a prefix
+        assertTrue(titleSearchIndex.search("ann report", ALL_DEPARTMENTS, 10).isEmpty());
+        assertEquals(List.of(2L, 1L), titleSearchIndex.search("ANNUAL", ALL_DEPARTMENTS, 10));
+    }
+
+    @Test
+    void search_blankOrPunctuationOnlyQuery_shouldReturnNothing() {
+        // Arrange
+        titleSearchIndex.index(1L, 10L, "Annual contract", null);
+
+        // Act & Assert
+        assertTrue(titleSearchIndex.search("  ", ALL_DEPARTMENTS, 10).isEmpty());
+        assertTrue(titleSearchIndex.search("--", ALL_DEPARTMENTS, 10).isEmpty());
+    }
+
+    @Test
+    void search_shouldOnlyReturnDocumentsOfGivenDepartments() {
+        // Arrange
+        titleSearchIndex.index(1L, 10L, "Budget 2025", null);
+        titleSearchIndex.index(2L, 20L, "Budget 2026", null);
+
+        // Act & Assert
+        assertEquals(List.of(1L), titleSearchIndex.search("budget", Set.of(10L), 10));
+        assertEquals(List.of(2L), titleSearchIndex.search("budget", Set.of(20L, 30L), 10));
+        assertTrue(titleSearchIndex.search("budget", Set.of(30L), 10).isEmpty());
+    }
+
+    @Test
+    void search_shouldReturnNewestFirstUpToLimit() {
+        // Arrange
+        titleSearchIndex.index(1L, 10L, "Meeting notes", null);
+        titleSearchIndex.index(5L, 20L, "Meeting notes", null);
+        titleSearchIndex.index(3L, 10L, "Meeting notes", null);
+
+        // Act & Assert
+        assertEquals(List.of(5L, 3L), titleSearchIndex.search("meeting", ALL_DEPARTMENTS, 2));
+    }
+
+    @Test
+    void index_updatedTitle_shouldDropOldTerms() {
+        // Arrange
+        titleSearchIndex.index(1L, 10L, "Draft proposal", null);
+
+        // Act
+        titleSearchIndex.index(1L, 20L, "Final proposal", null);
+
+        // Assert
+        assertTrue(titleSearchIndex.search("draft", ALL_DEPARTMENTS, 10).isEmpty());
+        assertEquals(List.of(1L), titleSearchIndex.search("final", Set.of(20L), 10));
+        assertTrue(titleSearchIndex.search("proposal", Set.of(10L), 10).isEmpty());
+        assertEquals(1, titleSearchIndex.getStats().getDepartments());
+    }
+
+    @Test
+    void updateTranslatedTitle_shouldReplaceTranslatedTerms() {
+        // Arrange
+        titleSearchIndex.index(1L, 10L, "Contract", "Contrat");
+
+        // Act
+        titleSearchIndex.updateTranslatedTitle(1L, "Vertrag");
+        titleSearchIndex.updateTranslatedTitle(2L, "Rechnung");
+
+        // Assert
+        assertTrue(titleSearchIndex.search("contrat", ALL_DEPARTMENTS, 10).isEmpty());
+        assertEquals(List.of(1L), titleSearchIndex.search("vertrag", ALL_DEPARTMENTS, 10));
+        assertEquals(List.of(1L), titleSearchIndex.search("contract", ALL_DEPARTMENTS, 10));
+        assertTrue(titleSearchIndex.search("rechnung", ALL_DEPARTMENTS, 10).isEmpty());
+    }
+
+    @Test
+    void remove_shouldDropDocumentAndEmptyPostings() {
+        // Arrange
+        titleSearchIndex.index(1L, 10L, "Annual contract", null);
+
+        // Act
+        titleSearchIndex.remove(1L);
+
+        // Assert
+        assertTrue(titleSearchIndex.search("contract", ALL_DEPARTMENTS, 10).isEmpty());
+        assertEquals(0, titleSearchIndex.getStats().getTerms());
+        assertEquals(0, titleSearchIndex.getStats().getDepartments());
+    }
+
+    @Test
+    void index_insideTransaction_shouldApplyOnlyAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        titleSearchIndex.index(1L, 10L, "Annual contract", null);
+
+        // Assert
+        assertTrue(titleSearchIndex.search("contract", ALL_DEPARTMENTS, 10).isEmpty());
+        complete(true);
+        assertEquals(List.of(1L), titleSearchIndex.search("contract", ALL_DEPARTMENTS, 10));
+    }
+
+    @Test
+    void changes_rolledBack_shouldLeaveIndexUnchanged() {
+        // Arrange
+        titleSearchIndex.index(1L, 10L, "Annual contract", null);
+        titleSearchIndex.index(2L, 10L, "Invoice", "Facture");
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        titleSearchIndex.index(1L, 10L, "Renamed", null);
+        titleSearchIndex.updateTranslatedTitle(2L, "Rechnung");
+        titleSearchIndex.remove(2L);
+        titleSearchIndex.index(3L, 10L, "New contract", null);
+        complete(false);
+
+        // Assert
+        assertEquals(List.of(1L), titleSearchIndex.search("contract", ALL_DEPARTMENTS, 10));
+        assertTrue(titleSearchIndex.search("renamed", ALL_DEPARTMENTS, 10).isEmpty());
+        assertEquals(List.of(2L), titleSearchIndex.search("facture", ALL_DEPARTMENTS, 10));
+        assertTrue(titleSearchIndex.search("rechnung", ALL_DEPARTMENTS, 10).isEmpty());
+    }
+
+    // Runs the registered callbacks the way the transaction manager does at the end of a transaction
+    private static void complete(boolean committed) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (committed) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(committed
+                    ? TransactionSynchronization.STATUS_COMMITTED
+                    : TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+    }
+
+    private static DocumentTitleView titleView(Long id, Long departmentId, String title, String translatedTitle) {
+        DocumentTitleView view = mock(DocumentTitleView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getDepartmentId()).thenReturn(departmentId);
+        when(view.getTitle()).thenReturn(title);
+        when(view.getTranslatedTitle()).thenReturn(translatedTitle);
+        return view;
+    }
+}
@@ -0,0 +1,159 @@
+package com.dms.document.service;
+
+import com.dms.document.dto.DocumentResponse;
+import com.dms.document.exception.ResourceNotFoundException;
+import com.dms.document.model.DirectUpload;
+import com.dms.document.repository.DirectUploadRepository;
+import com.dms.document.repository.DocumentRepository;
+import com.dms.document.repository.PendingFileDeletionRepository;
+import com.dms.document.util.WithMockCustomUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith({SpringExtension.class, MockitoExtension.class})
+@WithMockCustomUser(departmentIds = 10)
+class DirectUploadServiceTest {
+
+    private static final String UPLOAD_ID = "upload-1";
+    private static final String STAGING_KEY = "uploads/1/report.pdf";
+
+    @Mock
+    private DirectUploadRepository uploadRepository;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private PendingFileDeletionRepository deletionRepository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private FileService fileService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DirectUploadService directUploadService;
+    private DirectUpload upload;
+
+    @BeforeEach
+    void setUp() {
+        directUploadService = new DirectUploadService(uploadRepository, documentRepository, deletionRepository,
+                fileStorageService, fileService, new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(directUploadService, "maxSizeBytes", 1024L);
+
+        LocalDateTime now = LocalDateTime.now();
+        upload = DirectUpload.builder()
+                .id(UPLOAD_ID)
+                .documentId(1L)
+                .createdBy("test@example.com")
+                .fileName("report.pdf")
+                .contentType("application/pdf")
+                .objectKey(STAGING_KEY)
+                .createdAt(now)
+                .urlExpiresAt(now.plusMinutes(15))
+                .expiresAt(now.plusHours(1))
+                .build();
+        when(uploadRepository.findById(UPLOAD_ID)).thenReturn(Optional.of(upload));
+    }
+
+    @Test
+    void confirmUpload_shouldAttachCopyAndKeepStagedObjectUntilUrlExpires() {
+        // Arrange
+        DocumentResponse attached = DocumentResponse.builder().id(1L).build();
+        when(fileStorageService.statFile(STAGING_KEY)).thenReturn(Optional.of(
+                new FileStorageService.StoredObjectInfo(100, "application/pdf", "etag-1")));
+        when(uploadRepository.close(eq(UPLOAD_ID), any())).thenReturn(1);
+        when(fileStorageService.copyFile(STAGING_KEY, "etag-1", "report.pdf")).thenReturn("documents/1/report.pdf");
+        when(fileService.storeAndAttach(any(), any(), any(), any())).thenAnswer(invocation -> {
+            FileStorageService.StoredFile storedFile = invocation.<Supplier<FileStorageService.StoredFile>>getArgument(3).get();
+            assertEquals("documents/1/report.pdf", storedFile.key());
+            return attached;
+        });
+
+        // Act
+        DocumentResponse result = directUploadService.confirmUpload(UPLOAD_ID);
+
+        // Assert
+        assertSame(attached, result);
+        verify(deletionRepository, never()).enqueue(anyString(), any());
+        verify(uploadRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void confirmUpload_whenAlreadyClosed_shouldNotAttachAgain() {
+        // Arrange
+        when(fileStorageService.statFile(STAGING_KEY)).thenReturn(Optional.of(
+                new FileStorageService.StoredObjectInfo(100, "application/pdf", "etag-1")));
+        when(uploadRepository.close(eq(UPLOAD_ID), any())).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> directUploadService.confirmUpload(UPLOAD_ID));
+        verify(fileService, never()).storeAndAttach(any(), any(), any(), any());
+    }
+
+    @Test
+    void confirmUpload_closedUpload_shouldNotBeFound() {
+        // Arrange
+        upload.setClosedAt(LocalDateTime.now());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> directUploadService.confirmUpload(UPLOAD_ID));
+        verify(fileStorageService, never()).statFile(any());
+    }
+
+    @Test
+    void confirmUpload_notUploadedYet_shouldKeepUploadOpen() {
+        // Arrange
+        when(fileStorageService.statFile(STAGING_KEY)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> directUploadService.confirmUpload(UPLOAD_ID));
+        verify(uploadRepository, never()).close(any(), any());
+    }
+
+    @Test
+    void confirmUpload_wrongContentType_shouldCloseWithoutDeletingStagedObject() {
+        // Arrange
+        when(fileStorageService.statFile(STAGING_KEY)).thenReturn(Optional.of(
+                new FileStorageService.StoredObjectInfo(100, "text/html", "etag-1")));
+        when(uploadRepository.close(eq(UPLOAD_ID), any())).thenReturn(1);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> directUploadService.confirmUpload(UPLOAD_ID));
+        verify(fileService, never()).storeAndAttach(any(), any(), any(), any());
+        verify(deletionRepository, never()).enqueue(anyString(), any());
+    }
+
+    @Test
+    void cancelUpload_shouldCloseWithoutDeletingStagedObject() {
+        // Arrange
+        when(uploadRepository.close(eq(UPLOAD_ID), any())).thenReturn(1);
+
+        // Act
+        directUploadService.cancelUpload(UPLOAD_ID);
+
+        // Assert
+        verify(uploadRepository).close(eq(UPLOAD_ID), any());
+        verify(deletionRepository, never()).enqueue(anyString(), any());
+    }
+}
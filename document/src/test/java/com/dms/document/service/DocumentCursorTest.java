@@ -0,0 +1,76 @@
+package com.dms.document.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentCursorTest {
+
+    @Test
+    void decode_encodedCursor_shouldRoundTrip() {
+        // Arrange
+        DocumentCursor cursor = new DocumentCursor(LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_793_000), 42L);
+
+        // Act
+        DocumentCursor decoded = DocumentCursor.decode(cursor.encode());
+
+        // Assert
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void decode_cursorAtWholeMinute_shouldRoundTrip() {
+        // Arrange: LocalDateTime.toString() omits zero seconds
+        DocumentCursor cursor = new DocumentCursor(LocalDateTime.of(2025, 1, 1, 0, 0), 1L);
+
+        // Act & Assert
+        assertEquals(cursor, DocumentCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void encode_shouldBeUrlSafeWithoutPadding() {
+        // Act
+        String token = new DocumentCursor(LocalDateTime.of(2025, 3, 14, 9, 26, 53), Long.MAX_VALUE).encode();
+
+        // Assert
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void decode_notBase64_shouldThrow() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> DocumentCursor.decode("not a cursor!"));
+        assertEquals("Invalid cursor", exception.getMessage());
+    }
+
+    @Test
+    void decode_withoutSeparator_shouldThrow() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> DocumentCursor.decode(encodeRaw("2025-03-14T09:26:53")));
+    }
+
+    @Test
+    void decode_invalidTimestamp_shouldThrow() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> DocumentCursor.decode(encodeRaw("yesterday|42")));
+        assertEquals("Invalid cursor", exception.getMessage());
+    }
+
+    @Test
+    void decode_invalidId_shouldThrow() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> DocumentCursor.decode(encodeRaw("2025-03-14T09:26:53|forty-two")));
+        assertEquals("Invalid cursor", exception.getMessage());
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,102 @@
+package com.dms.document.service;
+
+import com.dms.document.repository.DocumentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentPurgeWorkerTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private InMemoryFileBlobs blobs;
+    private DocumentPurgeWorker purgeWorker;
+
+    @BeforeEach
+    void setUp() {
+        blobs = new InMemoryFileBlobs();
+        FileBlobService blobService = new FileBlobService(blobs.blobRepository(), blobs.deletionRepository(),
+                new SimpleMeterRegistry());
+        purgeWorker = new DocumentPurgeWorker(documentRepository, blobs.deletionRepository(), blobService,
+                fileStorageService, transactionManager, new SimpleMeterRegistry(), 2);
+        ReflectionTestUtils.setField(purgeWorker, "batchSize", 1000);
+        ReflectionTestUtils.setField(purgeWorker, "objectBatchSize", 500);
+        ReflectionTestUtils.setField(purgeWorker, "deleteChunkSize", 200);
+
+        when(documentRepository.findTombstonedIds(anyInt())).thenReturn(List.of(1L));
+        when(documentRepository.deleteTombstonedByIdIn(List.of(1L))).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        purgeWorker.shutdown();
+    }
+
+    @Test
+    void purge_tombstoneWithFileUsedByAnotherDocument_shouldKeepTheFile() {
+        // Arrange
+        blobs.put("documents/2/shared.pdf", "sha-shared", 2);
+        when(documentRepository.findFileKeysOfDocuments(List.of(1L))).thenReturn(List.of("documents/2/shared.pdf"));
+
+        // Act
+        purgeWorker.purge();
+
+        // Assert
+        assertEquals(1L, blobs.refCount("documents/2/shared.pdf"));
+        verify(documentRepository).deleteTombstonedByIdIn(List.of(1L));
+        verify(fileStorageService, never()).deleteFiles(anyList());
+    }
+
+    @Test
+    void purge_tombstoneWithOwnFiles_shouldDeleteThemFromStorage() {
+        // Arrange: the current file and a prior version kept in the revision history
+        blobs.put("documents/1/current.pdf", "sha-current", 1);
+        blobs.put("documents/1/previous.pdf", "sha-previous", 1);
+        when(documentRepository.findFileKeysOfDocuments(List.of(1L)))
+                .thenReturn(List.of("documents/1/current.pdf", "documents/1/previous.pdf"));
+        when(fileStorageService.deleteFiles(anyList())).thenReturn(List.of());
+
+        // Act
+        purgeWorker.purge();
+
+        // Assert
+        verify(fileStorageService).deleteFiles(List.of("documents/1/current.pdf", "documents/1/previous.pdf"));
+        assertNull(blobs.refCount("documents/1/current.pdf"));
+        assertTrue(blobs.queuedForDeletion().isEmpty());
+    }
+
+    @Test
+    void purge_whenObjectDeleteFails_shouldKeepItQueued() {
+        // Arrange
+        when(documentRepository.findFileKeysOfDocuments(List.of(1L))).thenReturn(List.of("documents/1/legacy.pdf"));
+        when(fileStorageService.deleteFiles(anyList())).thenReturn(List.of("documents/1/legacy.pdf"));
+
+        // Act
+        purgeWorker.purge();
+
+        // Assert
+        assertEquals(Set.of("documents/1/legacy.pdf"), blobs.queuedForDeletion());
+    }
+}
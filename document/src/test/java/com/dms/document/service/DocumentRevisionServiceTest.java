@@ -0,0 +1,274 @@
+package com.dms.document.service;
+
+import com.dms.document.dto.DocumentVersionPageResponse;
+import com.dms.document.dto.DocumentVersionResponse;
+import com.dms.document.dto.DocumentVersionSummary;
+import com.dms.document.exception.ResourceNotFoundException;
+import com.dms.document.model.Document;
+import com.dms.document.model.DocumentCategory;
+import com.dms.document.model.DocumentRevision;
+import com.dms.document.repository.DocumentRepository;
+import com.dms.document.util.WithMockCustomUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith({SpringExtension.class, MockitoExtension.class})
+@WithMockCustomUser(departmentIds = 10)
+class DocumentRevisionServiceTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    private InMemoryFileBlobs blobs;
+    private InMemoryDocumentRevisions revisions;
+    private DocumentRevisionService revisionService;
+    private Document document;
+
+    @BeforeEach
+    void setUp() {
+        blobs = new InMemoryFileBlobs();
+        revisions = new InMemoryDocumentRevisions();
+        FileBlobService blobService = new FileBlobService(blobs.blobRepository(), blobs.deletionRepository(),
+                new SimpleMeterRegistry());
+        revisionService = new DocumentRevisionService(revisions.repository(), documentRepository,
+                fileStorageService, blobService);
+        ReflectionTestUtils.setField(revisionService, "maxRetainedRevisions", 2);
+
+        document = Document.builder()
+                .id(1L)
+                .title("Contract")
+                .departmentId(10L)
+                .category(DocumentCategory.builder().id(7L).name("Contracts").build())
+                .fileKey("documents/1/v1.pdf")
+                .createdBy("author@example.com")
+                .createdAt(CREATED_AT)
+                .build();
+        blobs.put("documents/1/v1.pdf", "sha-1", 1);
+    }
+
+    @Test
+    void recordChange_shouldStoreOnlyChangedFields() {
+        // Act
+        replaceFile("documents/1/v2.pdf", "sha-2");
+
+        // Assert
+        List<DocumentRevision> stored = revisions.forDocument(1L);
+        assertEquals(1, stored.size());
+        assertEquals(2, stored.get(0).getRevision());
+        assertEquals(Map.of("fileKey", "documents/1/v1.pdf"), stored.get(0).getPreviousValues());
+    }
+
+    @Test
+    void recordChange_withoutChanges_shouldNotRecordVersion() {
+        // Act
+        revisionService.recordChange(DocumentRevisionService.Snapshot.of(document), document);
+
+        // Assert
+        assertTrue(revisions.forDocument(1L).isEmpty());
+    }
+
+    @Test
+    void recordChange_pastMaxRetained_shouldPruneOldestVersionAndReleaseItsFile() {
+        // Act: versions 2, 3 and 4 replace v1, v2 and v3; only the last two are retained
+        replaceFile("documents/1/v2.pdf", "sha-2");
+        replaceFile("documents/1/v3.pdf", "sha-3");
+        replaceFile("documents/1/v4.pdf", "sha-4");
+
+        // Assert
+        assertEquals(List.of(3, 4), revisions.forDocument(1L).stream().map(DocumentRevision::getRevision).toList());
+        assertNull(blobs.refCount("documents/1/v1.pdf"));
+        assertEquals(Set.of("documents/1/v1.pdf"), blobs.queuedForDeletion());
+        assertEquals(1L, blobs.refCount("documents/1/v2.pdf"));
+        assertEquals(1L, blobs.refCount("documents/1/v3.pdf"));
+        assertEquals(1L, blobs.refCount("documents/1/v4.pdf"));
+    }
+
+    @Test
+    void recordChange_pastMaxRetained_shouldKeepFileStillUsedByAnotherDocument() {
+        // Arrange: another document holds the same content as v1
+        blobs.put("documents/1/v1.pdf", "sha-1", 2);
+
+        // Act
+        replaceFile("documents/1/v2.pdf", "sha-2");
+        replaceFile("documents/1/v3.pdf", "sha-3");
+        replaceFile("documents/1/v4.pdf", "sha-4");
+
+        // Assert
+        assertEquals(1L, blobs.refCount("documents/1/v1.pdf"));
+        assertTrue(blobs.queuedForDeletion().isEmpty());
+    }
+
+    @Test
+    void getVersion_pastVersion_shouldUndoLaterChanges() {
+        // Arrange: version 2 renamed the document, version 3 replaced its file
+        when(documentRepository.findById(1L)).thenReturn(Optional.of(document));
+        when(fileStorageService.generatePresignedUrl(eq("documents/1/v1.pdf"), anyInt())).thenReturn("https://minio/v1");
+        ReflectionTestUtils.setField(revisionService, "maxRetainedRevisions", 20);
+        rename("Contract (signed)");
+        replaceFile("documents/1/v2.pdf", "sha-2");
+
+        // Act
+        DocumentVersionResponse original = revisionService.getVersion(1L, 1);
+        DocumentVersionResponse renamed = revisionService.getVersion(1L, 2);
+
+        // Assert
+        assertEquals("Contract", original.getTitle());
+        assertEquals("https://minio/v1", original.getFileUrl());
+        assertEquals(10L, original.getDepartmentId());
+        assertEquals(7L, original.getCategoryId());
+        assertFalse(original.isCurrent());
+        assertEquals("author@example.com", original.getChangedBy());
+        assertEquals(CREATED_AT, original.getChangedAt());
+
+        assertEquals("Contract (signed)", renamed.getTitle());
+        assertEquals("https://minio/v1", renamed.getFileUrl());
+        assertEquals("test@example.com", renamed.getChangedBy());
+        assertNotNull(renamed.getChangedAt());
+    }
+
+    @Test
+    void getVersion_currentVersion_shouldMatchDocument() {
+        // Arrange
+        when(documentRepository.findById(1L)).thenReturn(Optional.of(document));
+        when(fileStorageService.generatePresignedUrl(eq("documents/1/v2.pdf"), anyInt())).thenReturn("https://minio/v2");
+        replaceFile("documents/1/v2.pdf", "sha-2");
+
+        // Act
+        DocumentVersionResponse current = revisionService.getVersion(1L, 2);
+
+        // Assert
+        assertTrue(current.isCurrent());
+        assertEquals("Contract", current.getTitle());
+        assertEquals("https://minio/v2", current.getFileUrl());
+    }
+
+    @Test
+    void getVersion_oldestAfterPruning_shouldNotCreditTheCreator() {
+        // Arrange: changes 2 to 5 with two retained, so changes 2 and 3 are pruned
+        when(documentRepository.findById(1L)).thenReturn(Optional.of(document));
+        rename("Contract v2");
+        rename("Contract v3");
+        rename("Contract v4");
+        rename("Contract v5");
+
+        // Act
+        DocumentVersionResponse oldest = revisionService.getVersion(1L, 3);
+
+        // Assert
+        assertEquals("Contract v3", oldest.getTitle());
+        assertNull(oldest.getChangedBy());
+        assertNull(oldest.getChangedAt());
+        assertEquals("test@example.com", revisionService.getVersion(1L, 4).getChangedBy());
+    }
+
+    @Test
+    void getVersion_prunedOrFutureVersion_shouldThrow() {
+        // Arrange
+        when(documentRepository.findById(1L)).thenReturn(Optional.of(document));
+        rename("Contract v2");
+        rename("Contract v3");
+        rename("Contract v4");
+        rename("Contract v5");
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> revisionService.getVersion(1L, 2));
+        assertThrows(ResourceNotFoundException.class, () -> revisionService.getVersion(1L, 6));
+    }
+
+    @Test
+    void getVersion_withoutChanges_shouldReturnCreation() {
+        // Arrange
+        when(documentRepository.findById(1L)).thenReturn(Optional.of(document));
+
+        // Act
+        DocumentVersionResponse version = revisionService.getVersion(1L, 1);
+
+        // Assert
+        assertTrue(version.isCurrent());
+        assertEquals("author@example.com", version.getChangedBy());
+    }
+
+    @Test
+    void getVersions_shouldPageChangesNewestFirst() {
+        // Arrange
+        when(documentRepository.findById(1L)).thenReturn(Optional.of(document));
+        ReflectionTestUtils.setField(revisionService, "maxRetainedRevisions", 20);
+        rename("Contract v2");
+        rename("Contract v3");
+        replaceFile("documents/1/v4.pdf", "sha-4");
+        rename("Contract v5");
+
+        // Act
+        DocumentVersionPageResponse first = revisionService.getVersions(1L, 2, null);
+        DocumentVersionPageResponse second = revisionService.getVersions(1L, 2, first.getNextCursor());
+
+        // Assert
+        assertEquals(5, first.getCurrentVersion());
+        assertEquals(1, first.getOldestAvailableVersion());
+        assertEquals(List.of(5, 4), versions(first));
+        assertEquals(Set.of("fileKey"), first.getContent().get(1).getChangedFields());
+        assertEquals("4", first.getNextCursor());
+
+        assertEquals(List.of(3, 2), versions(second));
+        assertEquals(Set.of("title"), second.getContent().get(0).getChangedFields());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void getVersions_afterPruning_shouldReportOldestAvailableVersion() {
+        // Arrange
+        when(documentRepository.findById(1L)).thenReturn(Optional.of(document));
+        rename("Contract v2");
+        rename("Contract v3");
+        rename("Contract v4");
+        rename("Contract v5");
+
+        // Act
+        DocumentVersionPageResponse page = revisionService.getVersions(1L, null, null);
+
+        // Assert
+        assertEquals(3, page.getOldestAvailableVersion());
+        assertEquals(List.of(5, 4), versions(page));
+        assertNull(page.getNextCursor());
+    }
+
+    private void rename(String title) {
+        DocumentRevisionService.Snapshot before = DocumentRevisionService.Snapshot.of(document);
+        document.setTitle(title);
+        revisionService.recordChange(before, document);
+    }
+
+    private static List<Integer> versions(DocumentVersionPageResponse page) {
+        return page.getContent().stream().map(DocumentVersionSummary::getVersion).toList();
+    }
+
+    // What FileService does on attach: the new file is acquired and the old one's reference moves to the version
+    private void replaceFile(String fileKey, String sha256) {
+        DocumentRevisionService.Snapshot before = DocumentRevisionService.Snapshot.of(document);
+        blobs.put(fileKey, sha256, 1);
+        document.setFileKey(fileKey);
+        revisionService.recordChange(before, document);
+    }
+}
@@ -0,0 +1,130 @@
+package com.dms.document.service;
+
+import com.dms.document.model.Document;
+import com.dms.document.model.DocumentCategory;
+import com.dms.document.repository.DocumentCategoryRepository;
+import com.dms.document.repository.DocumentOutboxRepository;
+import com.dms.document.repository.DocumentRepository;
+import com.dms.document.search.TitleSearchIndex;
+import com.dms.document.util.WithMockCustomUser;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith({SpringExtension.class, MockitoExtension.class})
+@WithMockCustomUser(departmentIds = {10, 20})
+class DocumentServiceTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private DocumentCategoryRepository categoryRepository;
+
+    @Mock
+    private DocumentOutboxRepository outboxRepository;
+
+    @Mock
+    private TitleSearchIndex titleSearchIndex;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private DocumentStatisticsService statisticsService;
+
+    @Mock
+    private ResourceVersionService resourceVersionService;
+
+    @Mock
+    private DocumentRevisionService revisionService;
+
+    private DocumentService documentService;
+
+    @BeforeEach
+    void setUp() {
+        documentService = new DocumentService(documentRepository, categoryRepository, outboxRepository,
+                titleSearchIndex, entityManager, statisticsService, resourceVersionService, revisionService);
+        // The second-level cache entry is evicted after commit
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void deleteDocument_racingFileAttach_shouldKeepTheAttachedFile() {
+        // Arrange: the copy read before attachFile committed still holds K1; the locked row holds K2
+        lenient().when(documentRepository.findById(1L)).thenReturn(Optional.of(document(10L, "documents/1/k1.pdf")));
+        when(documentRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(document(10L, "documents/1/k2.pdf")));
+
+        // Act
+        documentService.deleteDocument(1L);
+
+        // Assert
+        Document tombstone = savedDocument();
+        assertNotNull(tombstone.getDeletedAt());
+        assertEquals("documents/1/k2.pdf", tombstone.getFileKey());
+    }
+
+    @Test
+    void deleteDocument_racingDepartmentMove_shouldCountDeletionInNewDepartment() {
+        // Arrange: the document was moved from department 10 to 20 while the delete waited
+        lenient().when(documentRepository.findById(1L)).thenReturn(Optional.of(document(10L, null)));
+        when(documentRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(document(20L, null)));
+
+        // Act
+        documentService.deleteDocument(1L);
+
+        // Assert
+        assertEquals(20L, savedDocument().getDepartmentId());
+        verify(statisticsService).recordDeleted(argThat(deleted -> deleted.getDepartmentId() == 20L));
+        verify(resourceVersionService).bumpDepartment(20L);
+    }
+
+    @Test
+    void deleteDocument_withoutDepartmentAccess_shouldThrow() {
+        // Arrange
+        when(documentRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(document(30L, null)));
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class,
+                () -> documentService.deleteDocument(1L));
+        verify(documentRepository, never()).save(any());
+    }
+
+    private Document savedDocument() {
+        ArgumentCaptor<Document> saved = ArgumentCaptor.forClass(Document.class);
+        verify(documentRepository).save(saved.capture());
+        return saved.getValue();
+    }
+
+    private static Document document(Long departmentId, String fileKey) {
+        return Document.builder()
+                .id(1L)
+                .title("Contract")
+                .departmentId(departmentId)
+                .category(DocumentCategory.builder().id(7L).name("Contracts").build())
+                .fileKey(fileKey)
+                .createdBy("test@example.com")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.dms.document.service;
+
+import com.dms.document.model.Document;
+import com.dms.document.model.DocumentCategory;
+import com.dms.document.repository.DocumentCategoryRepository;
+import com.dms.document.repository.DocumentStatisticsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentStatisticsServiceTest {
+
+    @Mock
+    private DocumentStatisticsRepository statisticsRepository;
+
+    @Mock
+    private DocumentCategoryRepository categoryRepository;
+
+    private DocumentStatisticsService statisticsService;
+
+    @BeforeEach
+    void setUp() {
+        statisticsService = new DocumentStatisticsService(statisticsRepository, categoryRepository);
+    }
+
+    @Test
+    void recordChanged_moveToLowerDepartment_shouldUpdateLowerKeyFirst() {
+        // Arrange
+        DocumentStatisticsService.Snapshot before = new DocumentStatisticsService.Snapshot(20L, 7L, 100L);
+
+        // Act
+        statisticsService.recordChanged(before, document(10L, 7L, 100L));
+
+        // Assert
+        InOrder inOrder = inOrder(statisticsRepository);
+        inOrder.verify(statisticsRepository).applyDelta(10L, 7L, 1, 100);
+        inOrder.verify(statisticsRepository).applyDelta(20L, 7L, -1, -100);
+    }
+
+    @Test
+    void recordChanged_oppositeMoves_shouldUpdateRowsInSameOrder() {
+        // Act: A to B, then B to A
+        statisticsService.recordChanged(new DocumentStatisticsService.Snapshot(10L, 7L, 100L), document(20L, 7L, 100L));
+        statisticsService.recordChanged(new DocumentStatisticsService.Snapshot(20L, 7L, 50L), document(10L, 7L, 50L));
+
+        // Assert
+        InOrder inOrder = inOrder(statisticsRepository);
+        inOrder.verify(statisticsRepository).applyDelta(10L, 7L, -1, -100);
+        inOrder.verify(statisticsRepository).applyDelta(20L, 7L, 1, 100);
+        inOrder.verify(statisticsRepository).applyDelta(10L, 7L, 1, 50);
+        inOrder.verify(statisticsRepository).applyDelta(20L, 7L, -1, -50);
+    }
+
+    @Test
+    void recordChanged_categoryChangeInSameDepartment_shouldOrderByCategory() {
+        // Act
+        statisticsService.recordChanged(new DocumentStatisticsService.Snapshot(10L, 9L, null), document(10L, 3L, null));
+
+        // Assert
+        InOrder inOrder = inOrder(statisticsRepository);
+        inOrder.verify(statisticsRepository).applyDelta(10L, 3L, 1, 0);
+        inOrder.verify(statisticsRepository).applyDelta(10L, 9L, -1, 0);
+    }
+
+    @Test
+    void recordChanged_sizeChangeOnly_shouldApplyOneDelta() {
+        // Act
+        statisticsService.recordChanged(new DocumentStatisticsService.Snapshot(10L, 7L, 100L), document(10L, 7L, 250L));
+
+        // Assert
+        verify(statisticsRepository).applyDelta(10L, 7L, 0, 150);
+        verifyNoMoreInteractions(statisticsRepository);
+    }
+
+    @Test
+    void recordChanged_nothingCounted_shouldNotTouchStatistics() {
+        // Act
+        statisticsService.recordChanged(new DocumentStatisticsService.Snapshot(10L, 7L, 100L), document(10L, 7L, 100L));
+
+        // Assert
+        verify(statisticsRepository, never()).applyDelta(anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    private static Document document(Long departmentId, Long categoryId, Long fileSizeBytes) {
+        return Document.builder()
+                .id(1L)
+                .departmentId(departmentId)
+                .category(DocumentCategory.builder().id(categoryId).build())
+                .fileSizeBytes(fileSizeBytes)
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.dms.document.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileBlobServiceTest {
+
+    private InMemoryFileBlobs blobs;
+    private FileBlobService blobService;
+
+    @BeforeEach
+    void setUp() {
+        blobs = new InMemoryFileBlobs();
+        blobService = new FileBlobService(blobs.blobRepository(), blobs.deletionRepository(),
+                new SimpleMeterRegistry());
+        // Dedup metrics are recorded after commit
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void acquire_withNewContent_shouldUseUploadedObject() {
+        // Act
+        String key = blobService.acquire(new FileStorageService.StoredFile("documents/1/a.pdf", 100, "sha-a"));
+
+        // Assert
+        assertEquals("documents/1/a.pdf", key);
+        assertEquals(1L, blobs.refCount("documents/1/a.pdf"));
+        assertTrue(blobs.queuedForDeletion().isEmpty());
+    }
+
+    @Test
+    void acquire_withStoredContent_shouldReuseObjectAndQueueUpload() {
+        // Arrange
+        blobs.put("documents/1/a.pdf", "sha-a", 1);
+
+        // Act
+        String key = blobService.acquire(new FileStorageService.StoredFile("documents/2/copy.pdf", 100, "sha-a"));
+
+        // Assert
+        assertEquals("documents/1/a.pdf", key);
+        assertEquals(2L, blobs.refCount("documents/1/a.pdf"));
+        assertNull(blobs.refCount("documents/2/copy.pdf"));
+        assertEquals(Set.of("documents/2/copy.pdf"), blobs.queuedForDeletion());
+    }
+
+    @Test
+    void acquire_withoutDigest_shouldNeverDeduplicate() {
+        // Act
+        String first = blobService.acquire(new FileStorageService.StoredFile("documents/1/a.pdf", 100, null));
+        String second = blobService.acquire(new FileStorageService.StoredFile("documents/2/a.pdf", 100, null));
+
+        // Assert
+        assertEquals("documents/1/a.pdf", first);
+        assertEquals("documents/2/a.pdf", second);
+        assertTrue(blobs.queuedForDeletion().isEmpty());
+    }
+
+    @Test
+    void release_lastReference_shouldQueueObject() {
+        // Arrange
+        blobs.put("documents/1/a.pdf", "sha-a", 1);
+
+        // Act
+        blobService.release(List.of("documents/1/a.pdf"));
+
+        // Assert
+        assertNull(blobs.refCount("documents/1/a.pdf"));
+        assertEquals(Set.of("documents/1/a.pdf"), blobs.queuedForDeletion());
+    }
+
+    @Test
+    void release_sharedObject_shouldKeepIt() {
+        // Arrange
+        blobs.put("documents/1/a.pdf", "sha-a", 2);
+
+        // Act
+        blobService.release(List.of("documents/1/a.pdf"));
+
+        // Assert
+        assertEquals(1L, blobs.refCount("documents/1/a.pdf"));
+        assertTrue(blobs.queuedForDeletion().isEmpty());
+    }
+
+    @Test
+    void release_sameKeyTwice_shouldDropTwoReferences() {
+        // Arrange
+        blobs.put("documents/1/a.pdf", "sha-a", 3);
+
+        // Act
+        blobService.release(List.of("documents/1/a.pdf", "documents/1/a.pdf"));
+
+        // Assert
+        assertEquals(1L, blobs.refCount("documents/1/a.pdf"));
+        assertTrue(blobs.queuedForDeletion().isEmpty());
+    }
+
+    @Test
+    void release_legacyKeyWithoutBlob_shouldQueueObject() {
+        // Act
+        blobService.release(List.of("documents/1/legacy.pdf"));
+
+        // Assert
+        assertEquals(Set.of("documents/1/legacy.pdf"), blobs.queuedForDeletion());
+    }
+
+    @Test
+    void release_afterContentWasDeleted_shouldAllowStoringItAgain() {
+        // Arrange
+        blobs.put("documents/1/a.pdf", "sha-a", 1);
+        blobService.release(List.of("documents/1/a.pdf"));
+
+        // Act
+        String key = blobService.acquire(new FileStorageService.StoredFile("documents/2/a.pdf", 100, "sha-a"));
+
+        // Assert
+        assertEquals("documents/2/a.pdf", key);
+        assertEquals(1L, blobs.refCount("documents/2/a.pdf"));
+    }
+}
@@ -0,0 +1,149 @@
+package com.dms.document.service;
+
+import com.dms.document.dto.DocumentResponse;
+import com.dms.document.dto.FileUploadRequest;
+import com.dms.document.model.Document;
+import com.dms.document.model.DocumentCategory;
+import com.dms.document.repository.DocumentRepository;
+import com.dms.document.util.WithMockCustomUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Reference counting across attaching files: runs FileService with the real FileBlobService and
+ * DocumentRevisionService over in-memory blob and revision tables
+ */
+@ExtendWith({SpringExtension.class, MockitoExtension.class})
+@WithMockCustomUser(departmentIds = 10)
+class FileServiceTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private DocumentService documentService;
+
+    @Mock
+    private DocumentStatisticsService statisticsService;
+
+    @Mock
+    private ResourceVersionService resourceVersionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private InMemoryFileBlobs blobs;
+    private InMemoryDocumentRevisions revisions;
+    private FileService fileService;
+    private Document document;
+
+    @BeforeEach
+    void setUp() {
+        blobs = new InMemoryFileBlobs();
+        revisions = new InMemoryDocumentRevisions();
+        FileBlobService blobService = new FileBlobService(blobs.blobRepository(), blobs.deletionRepository(),
+                new SimpleMeterRegistry());
+        DocumentRevisionService revisionService = new DocumentRevisionService(revisions.repository(),
+                documentRepository, fileStorageService, blobService);
+        ReflectionTestUtils.setField(revisionService, "maxRetainedRevisions", 20);
+        fileService = new FileService(documentRepository, fileStorageService, documentService, statisticsService,
+                resourceVersionService, revisionService, new TransactionTemplate(transactionManager), blobService);
+        // Presigned URL eviction and dedup metrics are registered to run after commit
+        TransactionSynchronizationManager.initSynchronization();
+
+        document = Document.builder()
+                .id(1L)
+                .title("Contract")
+                .departmentId(10L)
+                .category(DocumentCategory.builder().id(7L).name("Contracts").build())
+                .createdBy("test@example.com")
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        when(documentRepository.findById(1L)).thenReturn(Optional.of(document));
+        when(documentRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(document));
+        when(documentRepository.save(any(Document.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(fileStorageService.generatePresignedUrl(anyString(), anyInt())).thenReturn("https://minio/presigned");
+        lenient().when(documentService.mapToDocumentResponse(any(Document.class))).thenReturn(new DocumentResponse());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void storeAndAttach_replacingAWithBThenAAgain_shouldShareTheStoredA() {
+        // Act
+        attach("documents/1/a.pdf", "sha-a");
+        attach("documents/1/b.pdf", "sha-b");
+        attach("documents/1/a-again.pdf", "sha-a");
+
+        // Assert
+        assertEquals("documents/1/a.pdf", document.getFileKey());
+        // The document and the version that replaced A each hold a reference
+        assertEquals(2L, blobs.refCount("documents/1/a.pdf"));
+        // The version that replaced B holds it
+        assertEquals(1L, blobs.refCount("documents/1/b.pdf"));
+        assertEquals(Set.of("documents/1/a-again.pdf"), blobs.queuedForDeletion());
+        assertEquals(3, revisions.forDocument(1L).size());
+    }
+
+    @Test
+    void storeAndAttach_sameContentAgain_shouldKeepOneReference() {
+        // Arrange
+        attach("documents/1/a.pdf", "sha-a");
+
+        // Act
+        attach("documents/1/a-copy.pdf", "sha-a");
+
+        // Assert
+        assertEquals("documents/1/a.pdf", document.getFileKey());
+        assertEquals(1L, blobs.refCount("documents/1/a.pdf"));
+        assertEquals(Set.of("documents/1/a-copy.pdf"), blobs.queuedForDeletion());
+        // Nothing versioned changed, so no new version is recorded
+        assertEquals(1, revisions.forDocument(1L).size());
+    }
+
+    @Test
+    void storeAndAttach_whenAttachFails_shouldRemoveUploadedObject() {
+        // Arrange
+        doThrow(new IllegalStateException("statistics unavailable"))
+                .when(statisticsService).recordChanged(any(), any());
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> attach("documents/1/a.pdf", "sha-a"));
+        verify(fileStorageService).deleteFile("documents/1/a.pdf");
+    }
+
+    private void attach(String uploadedKey, String sha256) {
+        FileUploadRequest request = FileUploadRequest.builder()
+                .documentId(1L)
+                .build();
+        fileService.storeAndAttach(request, "contract.pdf", "application/pdf",
+                () -> new FileStorageService.StoredFile(uploadedKey, 100, sha256));
+    }
+}
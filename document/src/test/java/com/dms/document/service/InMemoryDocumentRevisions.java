@@ -0,0 +1,79 @@
+package com.dms.document.service;
+
+import com.dms.document.model.DocumentRevision;
+import com.dms.document.repository.DocumentRevisionRepository;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * The document_revisions table in memory, behind a repository mock covering the calls made
+ * when changes are recorded, pruned and read back
+ */
+class InMemoryDocumentRevisions {
+
+    private final List<DocumentRevision> revisions = new ArrayList<>();
+
+    private final DocumentRevisionRepository repository =
+            mock(DocumentRevisionRepository.class, withSettings().strictness(Strictness.LENIENT));
+
+    InMemoryDocumentRevisions() {
+        when(repository.findLatestRevision(anyLong()))
+                .thenAnswer(invocation -> forDocument(invocation.getArgument(0)).stream()
+                        .map(DocumentRevision::getRevision)
+                        .max(Integer::compare));
+        when(repository.findOldestRevision(anyLong()))
+                .thenAnswer(invocation -> forDocument(invocation.getArgument(0)).stream()
+                        .map(DocumentRevision::getRevision)
+                        .min(Integer::compare));
+        when(repository.findByDocumentIdOrderByRevisionDesc(anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> newestFirst(invocation.getArgument(0), Integer.MAX_VALUE)
+                        .limit(invocation.<Pageable>getArgument(1).getPageSize())
+                        .toList());
+        when(repository.findByDocumentIdAndRevisionLessThanOrderByRevisionDesc(anyLong(), anyInt(), any(Pageable.class)))
+                .thenAnswer(invocation -> newestFirst(invocation.getArgument(0), invocation.getArgument(1))
+                        .limit(invocation.<Pageable>getArgument(2).getPageSize())
+                        .toList());
+        when(repository.findByDocumentIdAndRevisionGreaterThanEqualOrderByRevisionDesc(anyLong(), anyInt()))
+                .thenAnswer(invocation -> newestFirst(invocation.getArgument(0), Integer.MAX_VALUE)
+                        .filter(revision -> revision.getRevision() >= invocation.<Integer>getArgument(1))
+                        .toList());
+        when(repository.save(any(DocumentRevision.class)))
+                .thenAnswer(invocation -> {
+                    revisions.add(invocation.getArgument(0));
+                    return invocation.getArgument(0);
+                });
+        when(repository.findByDocumentIdAndRevisionLessThanEqual(anyLong(), anyInt()))
+                .thenAnswer(invocation -> forDocument(invocation.getArgument(0)).stream()
+                        .filter(revision -> revision.getRevision() <= invocation.<Integer>getArgument(1))
+                        .toList());
+        doAnswer(invocation -> revisions.removeAll(invocation.<Collection<DocumentRevision>>getArgument(0)))
+                .when(repository).deleteAllInBatch(any());
+    }
+
+    DocumentRevisionRepository repository() {
+        return repository;
+    }
+
+    List<DocumentRevision> forDocument(Long documentId) {
+        return revisions.stream()
+                .filter(revision -> revision.getDocumentId().equals(documentId))
+                .sorted(Comparator.comparingInt(DocumentRevision::getRevision))
+                .toList();
+    }
+
+    private Stream<DocumentRevision> newestFirst(Long documentId, int belowRevision) {
+        return forDocument(documentId).reversed().stream()
+                .filter(revision -> revision.getRevision() < belowRevision);
+    }
+}
@@ -0,0 +1,101 @@
+package com.dms.document.service;
+
+import com.dms.document.repository.FileBlobRepository;
+import com.dms.document.repository.PendingFileDeletionRepository;
+import org.mockito.quality.Strictness;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.*;
+
+/**
+ * The file_blobs and file_deletions tables in memory, behind repository mocks that follow
+ * the semantics of their native queries (ON CONFLICT on sha256, RETURNING the remaining count)
+ */
+class InMemoryFileBlobs {
+
+    private final Map<String, Long> refCountByKey = new HashMap<>();
+    private final Map<String, String> keyBySha256 = new HashMap<>();
+    private final Set<String> queuedForDeletion = new LinkedHashSet<>();
+
+    private final FileBlobRepository blobRepository =
+            mock(FileBlobRepository.class, withSettings().strictness(Strictness.LENIENT));
+    private final PendingFileDeletionRepository deletionRepository =
+            mock(PendingFileDeletionRepository.class, withSettings().strictness(Strictness.LENIENT));
+
+    InMemoryFileBlobs() {
+        when(blobRepository.acquire(nullable(String.class), anyString(), anyLong(), any()))
+                .thenAnswer(invocation -> acquire(invocation.getArgument(0), invocation.getArgument(1)));
+        when(blobRepository.decrement(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(
+                        refCountByKey.computeIfPresent(invocation.getArgument(0), (key, count) -> count - 1)));
+        when(blobRepository.deleteIfUnreferenced(anyString()))
+                .thenAnswer(invocation -> deleteIfUnreferenced(invocation.getArgument(0)));
+
+        when(deletionRepository.enqueue(anyString(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> queuedForDeletion.add(invocation.getArgument(0)) ? 1 : 0);
+        when(deletionRepository.findNextBatch(anyInt()))
+                .thenAnswer(invocation -> queuedForDeletion.stream()
+                        .limit(invocation.<Integer>getArgument(0))
+                        .toList());
+        doAnswer(invocation -> queuedForDeletion.removeAll(invocation.<Collection<String>>getArgument(0)))
+                .when(deletionRepository).deleteAllByIdInBatch(any());
+    }
+
+    FileBlobRepository blobRepository() {
+        return blobRepository;
+    }
+
+    PendingFileDeletionRepository deletionRepository() {
+        return deletionRepository;
+    }
+
+    /**
+     * Register an existing blob, as left behind by earlier uploads
+     */
+    void put(String objectKey, String sha256, long refCount) {
+        refCountByKey.put(objectKey, refCount);
+        if (sha256 != null) {
+            keyBySha256.put(sha256, objectKey);
+        }
+    }
+
+    Long refCount(String objectKey) {
+        return refCountByKey.get(objectKey);
+    }
+
+    Set<String> queuedForDeletion() {
+        return queuedForDeletion;
+    }
+
+    private String acquire(String sha256, String objectKey) {
+        String existingKey = sha256 != null ? keyBySha256.get(sha256) : null;
+        if (existingKey != null) {
+            refCountByKey.merge(existingKey, 1L, Long::sum);
+            return existingKey;
+        }
+        put(objectKey, sha256, 1);
+        return objectKey;
+    }
+
+    private int deleteIfUnreferenced(String objectKey) {
+        Long count = refCountByKey.get(objectKey);
+        if (count == null || count > 0) {
+            return 0;
+        }
+        refCountByKey.remove(objectKey);
+        keyBySha256.values().remove(objectKey);
+        return 1;
+    }
+}
@@ -0,0 +1,263 @@
+package com.dms.document.service;
+
+import com.dms.document.config.MultipartMinioClient;
+import io.minio.messages.Part;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ParallelMultipartUploaderTest {
+
+    // The smallest part size S3 accepts, which the uploader enforces
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    private static final String BUCKET = "documents";
+    private static final String KEY = "documents/1/large.bin";
+    private static final String UPLOAD_ID = "upload-1";
+
+    @Mock
+    private MultipartMinioClient client;
+
+    private ParallelMultipartUploader uploader;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        uploader = new ParallelMultipartUploader(client, PART_SIZE, 2, 8, 3, 0);
+        when(client.startMultipartUpload(BUCKET, KEY, "application/octet-stream")).thenReturn(UPLOAD_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploader.shutdown();
+    }
+
+    @Test
+    void upload_shouldSendPartsAndFinishInOrder() throws Exception {
+        // Arrange
+        acceptParts();
+
+        // Act
+        long uploaded = upload(content(2 * PART_SIZE + 100));
+
+        // Assert
+        assertEquals(2L * PART_SIZE + 100, uploaded);
+        verify(client).uploadPart(eq(BUCKET), eq(KEY), eq(UPLOAD_ID), eq(1), any(byte[].class), eq(PART_SIZE));
+        assertEquals(List.of(1, 2, 3), finishedPartNumbers());
+        verify(client).uploadPart(eq(BUCKET), eq(KEY), eq(UPLOAD_ID), eq(3), any(byte[].class), eq(100));
+    }
+
+    @Test
+    void upload_exactMultipleOfPartSize_shouldNotSendEmptyLastPart() throws Exception {
+        // Arrange
+        acceptParts();
+
+        // Act
+        long uploaded = upload(content(2 * PART_SIZE));
+
+        // Assert
+        assertEquals(2L * PART_SIZE, uploaded);
+        assertEquals(List.of(1, 2), finishedPartNumbers());
+        verify(client, never()).uploadPart(anyString(), anyString(), anyString(), anyInt(), any(), eq(0));
+    }
+
+    @Test
+    void upload_emptyStream_shouldSendOneEmptyPart() throws Exception {
+        // Arrange
+        acceptParts();
+
+        // Act
+        long uploaded = upload(new ByteArrayInputStream(new byte[0]));
+
+        // Assert
+        assertEquals(0, uploaded);
+        assertEquals(List.of(1), finishedPartNumbers());
+        verify(client).uploadPart(eq(BUCKET), eq(KEY), eq(UPLOAD_ID), eq(1), any(byte[].class), eq(0));
+    }
+
+    @Test
+    void upload_shouldKeepAtMostParallelismPartsBuffered() throws Exception {
+        // Arrange: parts block until released, so the uploader has to wait for a free buffer
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        when(client.uploadPart(anyString(), anyString(), anyString(), anyInt(), any(), anyInt()))
+                .thenAnswer(invocation -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    release.await(10, TimeUnit.SECONDS);
+                    inFlight.decrementAndGet();
+                    return new Part(invocation.getArgument(3), "etag");
+                });
+        AtomicLong bytesRead = new AtomicLong();
+        InputStream content = countingStream(content(5 * PART_SIZE), bytesRead);
+
+        // Act
+        CompletableFuture<Long> uploaded = CompletableFuture.supplyAsync(() -> upload(content));
+        waitUntil(() -> inFlight.get() == 2);
+        Thread.sleep(200);
+
+        // Assert: two parts in flight and nothing read beyond their buffers
+        assertEquals(2L * PART_SIZE, bytesRead.get());
+        release.countDown();
+        assertEquals(5L * PART_SIZE, uploaded.get(10, TimeUnit.SECONDS));
+        assertEquals(2, maxInFlight.get());
+        assertEquals(List.of(1, 2, 3, 4, 5), finishedPartNumbers());
+    }
+
+    @Test
+    void upload_partFailingOnce_shouldRetryOnlyThatPart() throws Exception {
+        // Arrange
+        when(client.uploadPart(anyString(), anyString(), anyString(), anyInt(), any(), anyInt()))
+                .thenAnswer(invocation -> new Part(invocation.getArgument(3), "etag"));
+        when(client.uploadPart(eq(BUCKET), eq(KEY), eq(UPLOAD_ID), eq(2), any(), anyInt()))
+                .thenThrow(new IOException("connection reset"))
+                .thenReturn(new Part(2, "etag-2"));
+
+        // Act
+        upload(content(3 * PART_SIZE));
+
+        // Assert
+        verify(client, times(1)).uploadPart(eq(BUCKET), eq(KEY), eq(UPLOAD_ID), eq(1), any(), anyInt());
+        verify(client, times(2)).uploadPart(eq(BUCKET), eq(KEY), eq(UPLOAD_ID), eq(2), any(), anyInt());
+        verify(client, times(1)).uploadPart(eq(BUCKET), eq(KEY), eq(UPLOAD_ID), eq(3), any(), anyInt());
+        assertEquals(List.of(1, 2, 3), finishedPartNumbers());
+        verify(client, never()).abortMultipartUpload(any(), any(), any());
+    }
+
+    @Test
+    void upload_partFailingEveryAttempt_shouldStopReadingAndAbort() throws Exception {
+        // Arrange: one buffer, so the next part is only read once the first has given up
+        uploader.shutdown();
+        uploader = new ParallelMultipartUploader(client, PART_SIZE, 1, 8, 3, 0);
+        when(client.uploadPart(anyString(), anyString(), anyString(), anyInt(), any(), anyInt()))
+                .thenThrow(new IOException("bucket unavailable"));
+        when(client.abortMultipartUpload(BUCKET, KEY, UPLOAD_ID)).thenAnswer(invocation -> CompletableFuture.completedFuture(null));
+        AtomicLong bytesRead = new AtomicLong();
+
+        // Act
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> upload(countingStream(content(4 * PART_SIZE), bytesRead)));
+
+        // Assert
+        assertTrue(exception.getMessage().contains("part 1 after 3 attempts"));
+        assertEquals(PART_SIZE, bytesRead.get());
+        verify(client, times(3)).uploadPart(anyString(), anyString(), anyString(), anyInt(), any(), anyInt());
+        verify(client).abortMultipartUpload(BUCKET, KEY, UPLOAD_ID);
+        verify(client, never()).finishMultipartUpload(any(), any(), any(), any());
+    }
+
+    @Test
+    void upload_streamFailing_shouldAbortUpload() throws Exception {
+        // Arrange
+        lenient().when(client.uploadPart(anyString(), anyString(), anyString(), anyInt(), any(), anyInt()))
+                .thenAnswer(invocation -> new Part(invocation.getArgument(3), "etag"));
+        when(client.abortMultipartUpload(BUCKET, KEY, UPLOAD_ID)).thenAnswer(invocation -> CompletableFuture.completedFuture(null));
+        InputStream content = new FilterInputStream(content(PART_SIZE)) {
+            private boolean firstRead = true;
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (!firstRead) {
+                    throw new IOException("client disconnected");
+                }
+                firstRead = false;
+                return super.read(b, off, len);
+            }
+        };
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> upload(content));
+        assertInstanceOf(IOException.class, exception.getCause());
+        verify(client).abortMultipartUpload(BUCKET, KEY, UPLOAD_ID);
+        verify(client, never()).finishMultipartUpload(any(), any(), any(), any());
+    }
+
+    @Test
+    void upload_abortFailing_shouldReportOriginalFailure() throws Exception {
+        // Arrange
+        when(client.uploadPart(anyString(), anyString(), anyString(), anyInt(), any(), anyInt()))
+                .thenAnswer(invocation -> new Part(invocation.getArgument(3), "etag"));
+        when(client.finishMultipartUpload(eq(BUCKET), eq(KEY), eq(UPLOAD_ID), any()))
+                .thenThrow(new IOException("complete failed"));
+        when(client.abortMultipartUpload(BUCKET, KEY, UPLOAD_ID)).thenThrow(new IOException("abort failed"));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> upload(content(100)));
+        assertEquals("complete failed", exception.getCause().getMessage());
+    }
+
+    @Test
+    void upload_startFailing_shouldNotAbort() throws Exception {
+        // Arrange
+        when(client.startMultipartUpload(BUCKET, KEY, "application/octet-stream"))
+                .thenThrow(new IOException("access denied"));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> upload(content(100)));
+        verify(client, never()).abortMultipartUpload(any(), any(), any());
+    }
+
+    private long upload(InputStream content) {
+        return uploader.upload(BUCKET, KEY, "application/octet-stream", content);
+    }
+
+    private void acceptParts() throws Exception {
+        when(client.uploadPart(anyString(), anyString(), anyString(), anyInt(), any(), anyInt()))
+                .thenAnswer(invocation -> new Part(invocation.getArgument(3), "etag-" + invocation.getArgument(3)));
+    }
+
+    private List<Integer> finishedPartNumbers() throws Exception {
+        ArgumentCaptor<Part[]> parts = ArgumentCaptor.forClass(Part[].class);
+        verify(client).finishMultipartUpload(eq(BUCKET), eq(KEY), eq(UPLOAD_ID), parts.capture());
+        return Arrays.stream(parts.getValue()).map(Part::partNumber).toList();
+    }
+
+    private static InputStream content(int length) {
+        return new ByteArrayInputStream(new byte[length]);
+    }
+
+    private static InputStream countingStream(InputStream content, AtomicLong bytesRead) {
+        return new FilterInputStream(content) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int read = super.read(b, off, len);
+                if (read > 0) {
+                    bytesRead.addAndGet(read);
+                }
+                return read;
+            }
+        };
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for parts to start");
+            Thread.sleep(10);
+        }
+    }
+}
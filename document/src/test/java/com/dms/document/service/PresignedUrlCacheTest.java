@@ -0,0 +1,89 @@
+package com.dms.document.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PresignedUrlCacheTest {
+
+    private PresignedUrlCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PresignedUrlCache(new SimpleMeterRegistry(), 100, 0.5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    @Test
+    void get_withinReuseWindow_shouldReturnCachedUrl() {
+        // Arrange
+        AtomicInteger signed = new AtomicInteger();
+
+        // Act
+        String first = cache.get("documents/1/a.pdf", 30, () -> "url-" + signed.incrementAndGet());
+        String second = cache.get("documents/1/a.pdf", 30, () -> "url-" + signed.incrementAndGet());
+
+        // Assert
+        assertEquals("url-1", first);
+        assertEquals("url-1", second);
+    }
+
+    @Test
+    void get_afterEvict_shouldSignAgain() {
+        // Arrange
+        cache.get("documents/1/a.pdf", 30, () -> "old");
+
+        // Act
+        cache.evict("documents/1/a.pdf");
+
+        // Assert
+        assertEquals("new", cache.get("documents/1/a.pdf", 30, () -> "new"));
+    }
+
+    @Test
+    void constructor_secondInstance_shouldNotShareCache() {
+        // Arrange
+        cache.get("documents/1/a.pdf", 30, () -> "first");
+
+        // Act
+        PresignedUrlCache other = new PresignedUrlCache(new SimpleMeterRegistry(), 100, 0.5);
+        try {
+            // Assert
+            assertEquals("second", other.get("documents/1/a.pdf", 30, () -> "second"));
+        } finally {
+            other.close();
+        }
+    }
+
+    @Test
+    void constructor_fractionOutOfRange_shouldThrow() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new PresignedUrlCache(new SimpleMeterRegistry(), 100, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new PresignedUrlCache(new SimpleMeterRegistry(), 100, -0.1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PresignedUrlCache(new SimpleMeterRegistry(), 100, Double.NaN));
+    }
+
+    @Test
+    void constructor_zeroFraction_shouldReuseForWholeLifetime() {
+        // Arrange
+        PresignedUrlCache reuseAll = new PresignedUrlCache(new SimpleMeterRegistry(), 100, 0);
+        try {
+            reuseAll.get("documents/1/a.pdf", 30, () -> "first");
+
+            // Act & Assert
+            assertEquals("first", reuseAll.get("documents/1/a.pdf", 30, () -> "second"));
+        } finally {
+            reuseAll.close();
+        }
+    }
+}
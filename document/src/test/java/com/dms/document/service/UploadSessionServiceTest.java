@@ -0,0 +1,155 @@
+package com.dms.document.service;
+
+import com.dms.document.dto.DocumentResponse;
+import com.dms.document.exception.ResourceNotFoundException;
+import com.dms.document.model.UploadSession;
+import com.dms.document.model.UploadSessionChunk;
+import com.dms.document.repository.DocumentRepository;
+import com.dms.document.repository.UploadSessionChunkRepository;
+import com.dms.document.repository.UploadSessionRepository;
+import com.dms.document.util.WithMockCustomUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith({SpringExtension.class, MockitoExtension.class})
+@WithMockCustomUser(departmentIds = 10)
+class UploadSessionServiceTest {
+
+    private static final String SESSION_ID = "session-1";
+
+    @Mock
+    private UploadSessionRepository sessionRepository;
+
+    @Mock
+    private UploadSessionChunkRepository chunkRepository;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private FileService fileService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UploadSessionService uploadSessionService;
+
+    private FileStorageService.MultipartUpload multipartUpload;
+
+    @BeforeEach
+    void setUp() {
+        uploadSessionService = new UploadSessionService(sessionRepository, chunkRepository, documentRepository,
+                fileStorageService, fileService, new TransactionTemplate(transactionManager));
+
+        UploadSession session = UploadSession.builder()
+                .id(SESSION_ID)
+                .documentId(1L)
+                .createdBy("test@example.com")
+                .fileName("report.pdf")
+                .contentType("application/pdf")
+                .fileSizeBytes(12L)
+                .chunkSizeBytes(8)
+                .totalChunks(2)
+                .objectKey("documents/1/report.pdf")
+                .multipartUploadId("upload-1")
+                .createdAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+        multipartUpload = new FileStorageService.MultipartUpload(session.getObjectKey(), session.getMultipartUploadId());
+
+        when(sessionRepository.findById(SESSION_ID)).thenReturn(Optional.of(session));
+        when(chunkRepository.findBySessionIdOrderByChunkNumber(SESSION_ID)).thenReturn(List.of(
+                new UploadSessionChunk(SESSION_ID, 1, "etag-1", 8),
+                new UploadSessionChunk(SESSION_ID, 2, "etag-2", 4)));
+    }
+
+    @Test
+    void completeSession_shouldClaimSessionAndAttachFile() {
+        // Arrange
+        DocumentResponse attached = DocumentResponse.builder().id(1L).build();
+        when(sessionRepository.deleteAndCount(SESSION_ID)).thenReturn(1);
+        when(fileService.storeAndAttach(any(), any(), any(), any())).thenAnswer(invocation -> {
+            FileStorageService.StoredFile storedFile = invocation.<Supplier<FileStorageService.StoredFile>>getArgument(3).get();
+            assertEquals("documents/1/report.pdf", storedFile.key());
+            return attached;
+        });
+
+        // Act
+        DocumentResponse result = uploadSessionService.completeSession(SESSION_ID);
+
+        // Assert
+        assertSame(attached, result);
+        verify(fileStorageService).completeMultipartUpload(eq(multipartUpload), anyList());
+        verify(fileStorageService, never()).abortMultipartUpload(any());
+    }
+
+    @Test
+    void completeSession_whenAlreadyClaimed_shouldNotAttachAgain() {
+        // Arrange
+        when(sessionRepository.deleteAndCount(SESSION_ID)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> uploadSessionService.completeSession(SESSION_ID));
+        verify(fileService, never()).storeAndAttach(any(), any(), any(), any());
+        verify(fileStorageService, never()).completeMultipartUpload(any(), anyList());
+    }
+
+    @Test
+    void completeSession_whenIncomplete_shouldKeepSession() {
+        // Arrange
+        when(chunkRepository.findBySessionIdOrderByChunkNumber(SESSION_ID)).thenReturn(List.of(
+                new UploadSessionChunk(SESSION_ID, 1, "etag-1", 8)));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> uploadSessionService.completeSession(SESSION_ID));
+        verify(sessionRepository, never()).deleteAndCount(any());
+    }
+
+    @Test
+    void completeSession_whenAssemblyFails_shouldAbortUpload() {
+        // Arrange
+        when(sessionRepository.deleteAndCount(SESSION_ID)).thenReturn(1);
+        doThrow(new RuntimeException("complete failed"))
+                .when(fileStorageService).completeMultipartUpload(eq(multipartUpload), anyList());
+        when(fileService.storeAndAttach(any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(3).get());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> uploadSessionService.completeSession(SESSION_ID));
+        verify(fileStorageService).abortMultipartUpload(multipartUpload);
+    }
+
+    @Test
+    void completeSession_whenAttachFails_shouldNotAbortAssembledUpload() {
+        // Arrange
+        when(sessionRepository.deleteAndCount(SESSION_ID)).thenReturn(1);
+        when(fileService.storeAndAttach(any(), any(), any(), any())).thenAnswer(invocation -> {
+            invocation.<Supplier<?>>getArgument(3).get();
+            throw new IllegalStateException("attach failed");
+        });
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> uploadSessionService.completeSession(SESSION_ID));
+        verify(sessionRepository).deleteAndCount(SESSION_ID);
+        verify(fileStorageService, never()).abortMultipartUpload(any());
+    }
+}
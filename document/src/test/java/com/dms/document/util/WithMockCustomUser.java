@@ -0,0 +1,15 @@
+package com.dms.document.util;
+
+import org.springframework.security.test.context.support.WithSecurityContext;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+@Retention(RetentionPolicy.RUNTIME)
+@WithSecurityContext(factory = WithMockCustomUserSecurityContextFactory.class)
+public @interface WithMockCustomUser {
+    long id() default 1L;
+    String username() default "test@example.com";
+    String role() default "USER";
+    long[] departmentIds() default {};
+}
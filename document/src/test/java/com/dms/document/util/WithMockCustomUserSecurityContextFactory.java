@@ -0,0 +1,38 @@
+package com.dms.document.util;
+
+import com.dms.document.security.UserDetailsImpl;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.support.WithSecurityContextFactory;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+public class WithMockCustomUserSecurityContextFactory implements WithSecurityContextFactory<WithMockCustomUser> {
+
+    @Override
+    public SecurityContext createSecurityContext(WithMockCustomUser annotation) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+
+        Set<Long> departmentIds = new HashSet<>();
+        for (long id : annotation.departmentIds()) {
+            departmentIds.add(id);
+        }
+
+        UserDetailsImpl principal = UserDetailsImpl.builder()
+                .id(annotation.id())
+                .username(annotation.username())
+                .authorities(Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + annotation.role())))
+                .departmentIds(departmentIds)
+                .build();
+
+        Authentication auth = new UsernamePasswordAuthenticationToken(
+                principal, null, principal.getAuthorities());
+        context.setAuthentication(auth);
+        return context;
+    }
+}
@@ -0,0 +1,51 @@
+#!/bin/sh
+# Upload throughput benchmark against the local MinIO (docker compose up in this directory).
+#
+# Uploads a generated file through the streaming endpoint of a running document service and
+# reports MB/s. To compare sequential and parallel multipart uploads, run it once with the
+# service started normally and once with a threshold above the file size, e.g.
+#   APP_UPLOAD_PARALLEL_THRESHOLD_BYTES=107374182400 ./gradlew bootRun
+# and optionally vary APP_UPLOAD_PARALLEL_PART_SIZE_BYTES / APP_UPLOAD_PARALLEL_PARALLELISM.
+#
+# Usage: TOKEN=<jwt> DOCUMENT_ID=<id> ./benchmark-upload.sh [size-mb] [runs] [mode]
+#   mode: length (send Content-Length, default) or chunked (Transfer-Encoding: chunked)
+
+set -e
+
+SIZE_MB=${1:-512}
+RUNS=${2:-3}
+MODE=${3:-length}
+BASE_URL=${BASE_URL:-http://localhost:8082}
+FILE=${FILE:-/tmp/dms-benchmark-${SIZE_MB}mb.bin}
+
+: "${TOKEN:?Set TOKEN to a JWT from /api/auth/login}"
+: "${DOCUMENT_ID:?Set DOCUMENT_ID to a document the token can access}"
+
+if [ ! -f "$FILE" ]; then
+  dd if=/dev/urandom of="$FILE" bs=1048576 count="$SIZE_MB" 2>/dev/null
+fi
+
+# Only chunked mode needs an extra header; curl sends Content-Length for a file body by default
+if [ "$MODE" = "chunked" ]; then
+  set -- -H "Transfer-Encoding: chunked"
+else
+  set --
+fi
+
+i=1
+while [ "$i" -le "$RUNS" ]; do
+  RESULT=$(curl -s -o /dev/null -w '%{http_code} %{time_total}' \
+    -X PUT "$BASE_URL/api/files/$DOCUMENT_ID/content?fileName=benchmark.bin" \
+    -H "Authorization: Bearer $TOKEN" \
+    -H "Content-Type: application/octet-stream" \
+    "$@" \
+    --data-binary @"$FILE")
+  STATUS=${RESULT% *}
+  SECONDS_TAKEN=${RESULT#* }
+  if [ "$STATUS" != "200" ]; then
+    echo "run $i: upload failed with HTTP $STATUS" >&2
+    exit 1
+  fi
+  echo "run $i: ${SIZE_MB} MB in ${SECONDS_TAKEN}s ($(awk "BEGIN { printf \"%.1f\", $SIZE_MB / $SECONDS_TAKEN }") MB/s)"
+  i=$((i + 1))
+done
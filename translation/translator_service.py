@@ -78,9 +78,11 @@ async def consume_messages(producer: AIOKafkaProducer):
                     }
                     
                     # Send response to the translation-completed topic
+                    # Key by document ID so results for one document stay ordered
                     await producer.send_and_wait(
                         PRODUCER_TOPIC,
-                        json.dumps(response).encode('utf-8')
+                        json.dumps(response).encode('utf-8'),
+                        key=str(document_id).encode('utf-8')
                     )
                     print(f"Sent translation: {response}")
                 else: